@@ -0,0 +1,49 @@
+#!/usr/bin/env python3
+"""Compares two JMH JSON result files and fails when a benchmark got slower.
+
+Usage: scripts/jmh-compare.py baseline.json target/jmh-result.json [--threshold 10]
+
+A benchmark regresses when its score moves in the bad direction (up for time per operation,
+down for throughput) by more than the threshold percentage and by more than the combined
+error margins. Exits with 1 if anything regressed.
+"""
+import argparse
+import json
+import sys
+
+
+def load(path):
+    with open(path) as f:
+        results = {}
+        for run in json.load(f):
+            params = ",".join(f"{k}={v}" for k, v in sorted((run.get("params") or {}).items()))
+            results[f"{run['benchmark']}({params})"] = run
+        return results
+
+
+def main():
+    parser = argparse.ArgumentParser()
+    parser.add_argument("baseline")
+    parser.add_argument("current")
+    parser.add_argument("--threshold", type=float, default=10.0, help="allowed slowdown in percent")
+    args = parser.parse_args()
+
+    baseline, current = load(args.baseline), load(args.current)
+    regressions = 0
+    for key in sorted(baseline.keys() & current.keys()):
+        before, after = baseline[key]["primaryMetric"], current[key]["primaryMetric"]
+        higher_is_better = baseline[key]["mode"] == "thrpt"
+        change = (after["score"] - before["score"]) / before["score"] * 100
+        worse = -change if higher_is_better else change
+        noise = abs(before.get("scoreError") or 0) + abs(after.get("scoreError") or 0)
+        regressed = worse > args.threshold and abs(after["score"] - before["score"]) > noise
+        regressions += regressed
+        print(f"{'REGRESSED' if regressed else 'ok':9} {change:+7.1f}%  {before['score']:12.3f} -> "
+              f"{after['score']:12.3f} {after['scoreUnit']:10} {key}")
+    for key in sorted(baseline.keys() - current.keys()):
+        print(f"{'missing':9} {key}")
+    sys.exit(1 if regressions else 0)
+
+
+if __name__ == "__main__":
+    main()
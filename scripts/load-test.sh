@@ -0,0 +1,111 @@
+#!/usr/bin/env bash
+# Compares the platform-thread (default), virtual-thread and reactive (WebFlux + R2DBC) modes
+# under the same load.
+#
+# Usage: scripts/load-test.sh [connections] [duration] [products] [high-connections]
+#        MODES="default reactive" scripts/load-test.sh   # only some of the modes
+# Needs: Java 21 (for the virtual-threads run), wrk, curl, a built jar (./mvnw package -DskipTests),
+#        and a file descriptor limit above high-connections (ulimit -n)
+#
+# For each mode the app is started fresh, seeded through the import endpoint, warmed up, and then
+# hit with wrk on three request mixes: cached by-id reads (auth + cache), paged listing (database
+# on every request) and price updates (database writes). The paged listing is then repeated with
+# high-connections open connections, where a thread per request runs out first. wrk's output,
+# including the latency distribution, is written to target/load-test/<mode>-<scenario>.txt, and a
+# summary is printed.
+#
+# The rate limiter is switched off: a single user over 100 reads/s would otherwise be measuring
+# 429s. A run that got any non-2xx/3xx response fails rather than report those numbers.
+set -euo pipefail
+
+CONNECTIONS=${1:-400}
+DURATION=${2:-30s}
+PRODUCTS=${3:-10000}
+HIGH_CONNECTIONS=${4:-5000}
+MODES=${MODES:-default virtual-threads reactive}
+PORT=${PORT:-8080}
+BASE="http://localhost:${PORT}/api/v1/products"
+JAR=$(ls target/demo-store-mgmt-tool-*.jar 2>/dev/null | grep -v original | head -n 1)
+OUT=target/load-test
+USER_AUTH="Authorization: Basic $(printf 'user:password' | base64)"
+ADMIN_AUTH="Authorization: Basic $(printf 'admin:adminpass' | base64)"
+
+command -v wrk >/dev/null || { echo "wrk is required" >&2; exit 1; }
+[ -n "$JAR" ] || { echo "No jar in target/, run ./mvnw package -DskipTests first" >&2; exit 1; }
+mkdir -p "$OUT"
+
+start_app() {
+  local profile=$1
+  java -jar "$JAR" --server.port="$PORT" --spring.profiles.active="$profile" \
+    --store.rate-limit.enabled=false --logging.level.root=WARN >"$OUT/$profile-app.log" 2>&1 &
+  APP_PID=$!
+  for _ in $(seq 1 60); do
+    curl -fs -H "$USER_AUTH" "http://localhost:${PORT}/actuator/health" >/dev/null && return 0
+    sleep 1
+  done
+  echo "Application did not start, see $OUT/$profile-app.log" >&2
+  exit 1
+}
+
+stop_app() {
+  kill "$APP_PID" 2>/dev/null || true
+  wait "$APP_PID" 2>/dev/null || true
+}
+
+seed() {
+  { echo "name,price"; for i in $(seq 1 "$PRODUCTS"); do echo "Load test product $i,$((i % 1000)).99"; done; } |
+    curl -fs -X POST -H "$ADMIN_AUTH" -H "Content-Type: text/csv" --data-binary @- "$BASE/import" >/dev/null
+}
+
+write_lua() {
+  cat >"$OUT/reads.lua" <<LUA
+request = function()
+  return wrk.format("GET", "/api/v1/products/" .. math.random(1, ${PRODUCTS}))
+end
+LUA
+  cat >"$OUT/updates.lua" <<LUA
+wrk.method = "PUT"
+wrk.headers["Content-Type"] = "application/json"
+request = function()
+  local body = '{"newPrice": ' .. math.random(1, 1000) .. '.50}'
+  return wrk.format("PUT", "/api/v1/products/" .. math.random(1, ${PRODUCTS}), nil, body)
+end
+LUA
+}
+
+# wrk only reports error responses as a count, and the throughput it prints includes them
+fail_on_errors() {
+  local mode=$1 report=$2 errors
+  errors=$(awk '/Non-2xx or 3xx responses/ {print $NF}' "$report")
+  if [ -n "$errors" ]; then
+    echo "$errors non-2xx/3xx responses, see $report and $OUT/$mode-app.log" >&2
+    exit 1
+  fi
+}
+
+run() {
+  local mode=$1 scenario=$2 auth=$3 script=$4 path=$5 connections=${6:-$CONNECTIONS}
+  wrk -t4 -c"$connections" -d"$DURATION" --latency -H "$auth" ${script:+-s "$script"} \
+    "http://localhost:${PORT}${path}" >"$OUT/$mode-$scenario.txt"
+  printf '%-16s %-10s %14s req/s  p50 %8s  p99 %8s\n' "$mode" "$scenario" \
+    "$(awk '/Requests\/sec/ {print $2}' "$OUT/$mode-$scenario.txt")" \
+    "$(awk '$1 == "50%" {print $2}' "$OUT/$mode-$scenario.txt")" \
+    "$(awk '$1 == "99%" {print $2}' "$OUT/$mode-$scenario.txt")"
+  fail_on_errors "$mode" "$OUT/$mode-$scenario.txt"
+}
+
+write_lua
+for mode in $MODES; do
+  start_app "$mode"
+  trap stop_app EXIT
+  seed
+  # Warm up the JIT, the product cache and the auth cache before measuring
+  wrk -t2 -c50 -d10s -H "$USER_AUTH" -s "$OUT/reads.lua" "http://localhost:${PORT}" >"$OUT/$mode-warmup.txt"
+  fail_on_errors "$mode" "$OUT/$mode-warmup.txt"
+  run "$mode" reads "$USER_AUTH" "$OUT/reads.lua" ""
+  run "$mode" pages "$USER_AUTH" "" "/api/v1/products?size=100"
+  run "$mode" updates "$ADMIN_AUTH" "$OUT/updates.lua" ""
+  run "$mode" pages-high "$USER_AUTH" "" "/api/v1/products?size=100" "$HIGH_CONNECTIONS"
+  stop_app
+  trap - EXIT
+done
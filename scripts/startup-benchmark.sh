@@ -0,0 +1,71 @@
+#!/usr/bin/env bash
+# Time until the catalog is servable after a restart: in-memory (start, then re-import everything),
+# in-memory restored from a catalog snapshot, and persistent (start on the existing file, cache warmed).
+#
+# Usage: scripts/startup-benchmark.sh [products]   (default 1000000)
+# Needs: curl, a built jar (./mvnw package -DskipTests). Uses ./target/startup-benchmark as data dir.
+set -euo pipefail
+
+PRODUCTS=${1:-1000000}
+PORT=${PORT:-8080}
+JAR=$(ls target/demo-store-mgmt-tool-*.jar 2>/dev/null | grep -v original | head -n 1)
+OUT=target/startup-benchmark
+AUTH=(--user admin:adminpass)
+
+[ -n "$JAR" ] || { echo "No jar in target/, run ./mvnw package -DskipTests first" >&2; exit 1; }
+rm -rf "$OUT" && mkdir -p "$OUT"
+
+now_ms() { date +%s%3N; }
+
+start_app() {
+  local profile=$1 log=$2
+  shift 2
+  java -jar "$JAR" --server.port="$PORT" --spring.profiles.active="$profile" \
+    --store.persistent.data-dir="$OUT/data" --store.snapshot.directory="$OUT/snapshots" "$@" >"$OUT/$log.log" 2>&1 &
+  APP_PID=$!
+  # Readiness, not health: health is UP while a snapshot restore is still inserting rows
+  until curl -fs "${AUTH[@]}" "http://localhost:${PORT}/actuator/health/readiness" >/dev/null; do
+    kill -0 "$APP_PID" 2>/dev/null || { echo "Application exited, see $OUT/$log.log" >&2; exit 1; }
+    sleep 0.2
+  done
+}
+
+stop_app() {
+  kill "$APP_PID" 2>/dev/null || true
+  wait "$APP_PID" 2>/dev/null || true
+}
+trap stop_app EXIT
+
+echo "Generating $PRODUCTS products"
+{ echo "name,price"; seq 1 "$PRODUCTS" | awk '{ printf "Product %d,%d.%02d\n", $1, $1 % 1000, $1 % 100 }'; } >"$OUT/catalog.csv"
+
+import_catalog() {
+  curl -fs "${AUTH[@]}" -X POST -H "Content-Type: text/csv" --data-binary @"$OUT/catalog.csv" \
+    "http://localhost:${PORT}/api/v1/products/import" >/dev/null
+}
+
+# Cold: empty in-memory database, the catalog has to be loaded again
+t0=$(now_ms); start_app default cold; t1=$(now_ms)
+import_catalog; t2=$(now_ms)
+snapshot=$(curl -fs "${AUTH[@]}" -X POST "http://localhost:${PORT}/api/v1/products/snapshots"); t3=$(now_ms)
+stop_app
+echo "in-memory  start $((t1 - t0)) ms + re-import $((t2 - t1)) ms = $((t2 - t0)) ms until the catalog is servable"
+snapshot_file=$(echo "$snapshot" | sed -E 's/.*"file":"([^"]*)".*/\1/')
+echo "snapshot   export $((t3 - t2)) ms, $(du -h "$snapshot_file" | cut -f1) for the catalog in $snapshot_file"
+
+# Restore: empty in-memory database loaded from the snapshot before the application reports ready
+t0=$(now_ms); start_app default restore --store.snapshot.restore-from="$snapshot_file"; t1=$(now_ms)
+count=$(curl -fs "${AUTH[@]}" "http://localhost:${PORT}/api/v1/products/count")
+stop_app
+echo "restored   start $((t1 - t0)) ms until the catalog is servable ($count products)"
+
+# Populate the file database once, then measure a restart on it
+start_app persistent seed; import_catalog; stop_app
+t0=$(now_ms); start_app persistent warm; t1=$(now_ms)
+# The cache warmer and search index run on ApplicationReadyEvent; wait for both to log completion
+until grep -q "Warmed product cache" "$OUT/warm.log" && grep -q "search index built" "$OUT/warm.log"; do sleep 0.2; done
+t2=$(now_ms)
+count=$(curl -fs "${AUTH[@]}" "http://localhost:${PORT}/api/v1/products/count")
+stop_app
+echo "persistent start $((t1 - t0)) ms, warm $((t2 - t0)) ms until cache and index are loaded ($count products)"
+du -sh "$OUT/data" | awk '{ print "database file size " $1 }'
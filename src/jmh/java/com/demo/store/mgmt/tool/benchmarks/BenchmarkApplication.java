@@ -0,0 +1,70 @@
+package com.demo.store.mgmt.tool.benchmarks;
+
+import com.demo.store.mgmt.tool.ToolApplication;
+import com.demo.store.mgmt.tool.cache.PriceBook;
+import com.demo.store.mgmt.tool.cache.ProductCache;
+import com.demo.store.mgmt.tool.services.ProductSearchIndex;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+// Boots the real application (H2 in memory, random port) and seeds it with generated products
+final class BenchmarkApplication {
+
+    static final String[] WORDS = {
+            "Walnut Desk Lamp", "Oak Dining Chair", "Wireless Mouse", "Mechanical Keyboard", "Steel Water Bottle",
+            "Linen Table Cloth", "Ceramic Coffee Mug", "Leather Notebook", "Bamboo Cutting Board", "Cotton Bath Towel"
+    };
+
+    private static final int SEED_BATCH_SIZE = 10_000;
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(int rows, String... properties) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ToolApplication.class)
+                .properties("server.port=0", "spring.jpa.show-sql=false", "logging.level.root=WARN")
+                .properties(properties)
+                .run();
+        seed(context, rows);
+        return context;
+    }
+
+    static String name(int i) {
+        return WORDS[i % WORDS.length] + " " + i;
+    }
+
+    // Plain JDBC batches with explicit ids; going through JPA would make setup dominate a 1M-row run
+    private static void seed(ConfigurableApplicationContext context, int rows) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        for (int start = 1; start <= rows; start += SEED_BATCH_SIZE) {
+            int first = start;
+            int count = Math.min(SEED_BATCH_SIZE, rows - start + 1);
+            jdbcTemplate.batchUpdate("INSERT INTO products (id, name, price, version) VALUES (?, ?, ?, 0)",
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            int id = first + i;
+                            ps.setLong(1, id);
+                            ps.setString(2, name(id));
+                            ps.setBigDecimal(3, BigDecimal.valueOf(100 + id % 100_000, 2));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return count;
+                        }
+                    });
+        }
+        // Keep ids handed out by Hibernate's pooled sequence clear of the seeded range
+        jdbcTemplate.execute("ALTER SEQUENCE product_seq RESTART WITH " + (rows + 1000));
+        context.getBean(ProductSearchIndex.class).rebuild();
+        context.getBean(ProductCache.class).invalidateAll();
+        context.getBean(PriceBook.class).load();
+    }
+}
@@ -0,0 +1,84 @@
+package com.demo.store.mgmt.tool.benchmarks;
+
+import com.demo.store.mgmt.tool.exception.ConcurrencyConflictException;
+import com.demo.store.mgmt.tool.services.ProductService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.ConcurrencyFailureException;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Eight writers repricing a small set of products. The secondary "conflicts" and "lockTimeouts"
+// counters in the results show how much of the work was thrown away.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class PriceContentionBenchmark {
+
+    // How many products the writers spread over; 1 means every update races for the same row
+    @Param({"1", "16", "1024"})
+    public int hotProducts;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(10_000);
+        productService = context.getBean(ProductService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long updated;
+        public long conflicts;
+        public long lockTimeouts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            updated = 0;
+            conflicts = 0;
+            lockTimeouts = 0;
+        }
+    }
+
+    @Benchmark
+    public void changeProductPrice(Outcomes outcomes) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = 1 + random.nextInt(hotProducts);
+        try {
+            productService.changeProductPrice(id, BigDecimal.valueOf(random.nextInt(1, 100_000), 2));
+            outcomes.updated++;
+        } catch (ConcurrencyConflictException ex) {
+            outcomes.conflicts++;
+        } catch (ConcurrencyFailureException ex) {
+            outcomes.lockTimeouts++;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.demo.store.mgmt.tool.benchmarks;
+
+import com.demo.store.mgmt.tool.dto.ProductPage;
+import com.demo.store.mgmt.tool.dto.ProductResponse;
+import com.demo.store.mgmt.tool.services.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Substring search, cursor paging and the full NDJSON-style stream over the whole catalog
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductListingBenchmark {
+
+    private static final String[] QUERIES = {"lamp", "Walnut Desk", "mouse 12", "Cutting Board 999", "towel"};
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private final List<String> cursors = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(rows);
+        productService = context.getBean(ProductService.class);
+        // Page boundaries across the whole table, so page reads aren't all served from the first rows
+        String cursor = null;
+        do {
+            cursors.add(cursor);
+            cursor = productService.findProductsPage(cursor, ProductService.MAX_PAGE_SIZE).next();
+        } while (cursor != null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ProductResponse> findProductsByNameContaining() {
+        return productService.findProductsByNameContaining(QUERIES[ThreadLocalRandom.current().nextInt(QUERIES.length)], 50);
+    }
+
+    @Benchmark
+    public ProductPage findProductsPage() {
+        return productService.findProductsPage(cursors.get(ThreadLocalRandom.current().nextInt(cursors.size())),
+                ProductService.MAX_PAGE_SIZE);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void streamAllProducts(Blackhole blackhole) {
+        productService.streamAllProducts(blackhole::consume);
+    }
+}
@@ -0,0 +1,71 @@
+package com.demo.store.mgmt.tool.benchmarks;
+
+import com.demo.store.mgmt.tool.cache.PriceBook;
+import com.demo.store.mgmt.tool.dto.ProductSnapshot;
+import com.demo.store.mgmt.tool.services.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductLookupBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    // 0 effectively disables the product cache, so every lookup goes to the database
+    @Param({"0", "100000"})
+    public long cacheSize;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private PriceBook priceBook;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(rows, "store.product-cache.max-size=" + cacheSize);
+        productService = context.getBean(ProductService.class);
+        priceBook = context.getBean(PriceBook.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<ProductSnapshot> findProductById() {
+        return productService.findProductById((long) ThreadLocalRandom.current().nextInt(1, rows + 1));
+    }
+
+    @Benchmark
+    public Optional<ProductSnapshot> findProductByName() {
+        return productService.findProductByName(BenchmarkApplication.name(ThreadLocalRandom.current().nextInt(1, rows + 1)));
+    }
+
+    // Same id lookup when only the price is needed; cacheSize doesn't apply
+    @Benchmark
+    public long priceBookLookup() {
+        return priceBook.priceCents(ThreadLocalRandom.current().nextInt(1, rows + 1));
+    }
+}
@@ -0,0 +1,90 @@
+package com.demo.store.mgmt.tool.benchmarks;
+
+import com.demo.store.mgmt.tool.dto.ProductResponse;
+import com.demo.store.mgmt.tool.dto.ProductSnapshot;
+import com.demo.store.mgmt.tool.models.Product;
+import com.demo.store.mgmt.tool.repositories.ProductRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Entity load then map (the old read path) versus selecting straight into records, by id and for a
+// 100-row page. Run with the GC profiler to see bytes allocated per operation (gc.alloc.rate.norm):
+//   ./mvnw -Pjmh test-compile exec:exec -Djmh.args="ReadPathAllocationBenchmark -prof gc"
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReadPathAllocationBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int PAGE_SIZE = 100;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(ROWS);
+        productRepository = context.getBean(ProductRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<ProductSnapshot> entityById() {
+        long id = ThreadLocalRandom.current().nextInt(1, ROWS + 1);
+        return readOnlyTransaction.execute(status -> productRepository.findById(id).map(ProductSnapshot::of));
+    }
+
+    @Benchmark
+    public Optional<ProductSnapshot> projectionById() {
+        long id = ThreadLocalRandom.current().nextInt(1, ROWS + 1);
+        return readOnlyTransaction.execute(status -> productRepository.findSnapshotById(id));
+    }
+
+    @Benchmark
+    public List<ProductResponse> entityPage() {
+        int page = ThreadLocalRandom.current().nextInt(ROWS / PAGE_SIZE);
+        return readOnlyTransaction.execute(status -> productRepository.findAll(PageRequest.of(page, PAGE_SIZE)).stream()
+                .map(ReadPathAllocationBenchmark::toResponse)
+                .toList());
+    }
+
+    @Benchmark
+    public List<ProductResponse> projectionPage() {
+        long afterId = (long) ThreadLocalRandom.current().nextInt(ROWS / PAGE_SIZE) * PAGE_SIZE;
+        return readOnlyTransaction.execute(status ->
+                productRepository.findPageAfter(afterId, PageRequest.of(0, PAGE_SIZE)));
+    }
+
+    private static ProductResponse toResponse(Product product) {
+        return new ProductResponse(product.getId(), product.getName(), product.getPrice());
+    }
+}
@@ -4,9 +4,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
 import org.springframework.context.ApplicationContext;
 
-@SpringBootApplication
+// JPA owns transactions and schema. The reactive profile builds its own R2DBC pool (R2dbcConfig);
+// Boot's would create an extra embedded database and a transaction manager that displaces JPA's.
+@SpringBootApplication(exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
 public class ToolApplication {
     private static final Logger logger = LoggerFactory.getLogger(ToolApplication.class);
 
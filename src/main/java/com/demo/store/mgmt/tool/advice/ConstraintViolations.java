@@ -0,0 +1,31 @@
+package com.demo.store.mgmt.tool.advice;
+
+import java.util.Locale;
+
+// Tells which table constraint a DataIntegrityViolationException broke. Neither JDBC nor R2DBC
+// hands over the constraint name in a portable way, but H2 puts it in the message of the cause.
+final class ConstraintViolations {
+
+    static final String PRODUCT_NAME = "uk_products_name";
+
+    static final String PRODUCT_NAME_MESSAGE =
+            "The change conflicts with an existing product; product names must be unique.";
+    static final String GENERIC_MESSAGE = "The change violates a data constraint.";
+
+    private ConstraintViolations() {
+    }
+
+    static String message(Throwable ex) {
+        return violated(ex, PRODUCT_NAME) ? PRODUCT_NAME_MESSAGE : GENERIC_MESSAGE;
+    }
+
+    static boolean violated(Throwable ex, String constraint) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            String message = cause.getMessage();
+            if (message != null && message.toLowerCase(Locale.ROOT).contains(constraint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
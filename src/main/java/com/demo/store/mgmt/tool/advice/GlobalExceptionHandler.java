@@ -1,9 +1,18 @@
 package com.demo.store.mgmt.tool.advice;
 
 import com.demo.store.mgmt.tool.exception.ConcurrencyConflictException;
+import com.demo.store.mgmt.tool.exception.InsufficientStockException;
 import com.demo.store.mgmt.tool.exception.ProductNotFoundException;
 import com.demo.store.mgmt.tool.exception.ProductValidationException;
+import com.demo.store.mgmt.tool.exception.ProductVersionMismatchException;
+import com.demo.store.mgmt.tool.exception.ReservationNotFoundException;
+import com.demo.store.mgmt.tool.exception.ScheduledPriceChangeNotFoundException;
+import com.demo.store.mgmt.tool.exception.TooManySubscribersException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.OptimisticLockException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -19,8 +28,24 @@ import java.util.HashMap;
 import java.util.Map;
 
 @ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class GlobalExceptionHandler {
 
+    // Lost updates are the cost of optimistic locking; these show how often clients hit them
+    private final Counter concurrentUpdateConflicts;
+    private final Counter versionMismatches;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.concurrentUpdateConflicts = Counter.builder("store.product.conflicts")
+                .description("Product writes rejected because of a concurrent change")
+                .tag("reason", "concurrent_update")
+                .register(meterRegistry);
+        this.versionMismatches = Counter.builder("store.product.conflicts")
+                .description("Product writes rejected because of a concurrent change")
+                .tag("reason", "version_mismatch")
+                .register(meterRegistry);
+    }
+
     // Handles your custom ProductNotFoundException
     @ExceptionHandler(ProductNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleProductNotFoundException(ProductNotFoundException ex, WebRequest request) {
@@ -93,6 +118,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler({OptimisticLockException.class, org.springframework.orm.ObjectOptimisticLockingFailureException.class})
     public ResponseEntity<ErrorResponse> handleOptimisticLockException(Exception ex, WebRequest request) {
+        concurrentUpdateConflicts.increment();
         ErrorResponse errorDetails = new ErrorResponse(
                 HttpStatus.CONFLICT.value(), // Return 409 Conflict status code
                 new Date(),
@@ -104,6 +130,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(ConcurrencyConflictException.class)
     public ResponseEntity<ErrorResponse> handleConcurrencyConflictException(ConcurrencyConflictException ex, WebRequest request) {
+        concurrentUpdateConflicts.increment();
         ErrorResponse errorDetails = new ErrorResponse(
                 HttpStatus.CONFLICT.value(), // Return 409 Conflict status code
                 new Date(),
@@ -113,6 +140,75 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
     }
 
+    // If-Match did not match the current version
+    @ExceptionHandler(ProductVersionMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleProductVersionMismatchException(ProductVersionMismatchException ex, WebRequest request) {
+        versionMismatches.increment();
+        ErrorResponse errorDetails = new ErrorResponse(
+                HttpStatus.PRECONDITION_FAILED.value(), // Return 412 Precondition Failed
+                new Date(),
+                ex.getMessage(),
+                request.getDescription(false)
+        );
+        return new ResponseEntity<>(errorDetails, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    // A write broke a table constraint; only uk_products_name means the name is taken
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolationException(DataIntegrityViolationException ex, WebRequest request) {
+        ErrorResponse errorDetails = new ErrorResponse(
+                HttpStatus.CONFLICT.value(), // Return 409 Conflict status code
+                new Date(),
+                ConstraintViolations.message(ex),
+                request.getDescription(false)
+        );
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<ErrorResponse> handleInsufficientStockException(InsufficientStockException ex, WebRequest request) {
+        ErrorResponse errorDetails = new ErrorResponse(
+                HttpStatus.CONFLICT.value(), // Return 409 Conflict status code
+                new Date(),
+                ex.getMessage(),
+                request.getDescription(false)
+        );
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(ReservationNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleReservationNotFoundException(ReservationNotFoundException ex, WebRequest request) {
+        ErrorResponse errorDetails = new ErrorResponse(
+                HttpStatus.NOT_FOUND.value(),
+                new Date(),
+                ex.getMessage(),
+                request.getDescription(false)
+        );
+        return new ResponseEntity<>(errorDetails, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(ScheduledPriceChangeNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleScheduledPriceChangeNotFoundException(ScheduledPriceChangeNotFoundException ex, WebRequest request) {
+        ErrorResponse errorDetails = new ErrorResponse(
+                HttpStatus.NOT_FOUND.value(),
+                new Date(),
+                ex.getMessage(),
+                request.getDescription(false)
+        );
+        return new ResponseEntity<>(errorDetails, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(TooManySubscribersException.class)
+    public ResponseEntity<ErrorResponse> handleTooManySubscribersException(TooManySubscribersException ex, WebRequest request) {
+        ErrorResponse errorDetails = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(), // Return 503 Service Unavailable
+                new Date(),
+                ex.getMessage(),
+                request.getDescription(false)
+        );
+        return new ResponseEntity<>(errorDetails, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     // A generic handler for any other unexpected exceptions
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGlobalException(Exception ex, WebRequest request) {
@@ -0,0 +1,131 @@
+package com.demo.store.mgmt.tool.advice;
+
+import com.demo.store.mgmt.tool.exception.ConcurrencyConflictException;
+import com.demo.store.mgmt.tool.exception.ProductNotFoundException;
+import com.demo.store.mgmt.tool.exception.ProductValidationException;
+import com.demo.store.mgmt.tool.exception.ProductVersionMismatchException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+// GlobalExceptionHandler for the reactive profile: the same statuses, bodies and conflict metrics.
+// WebFlux reports binding and conversion problems with its own exception types.
+@ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveExceptionHandler {
+
+    private final Counter concurrentUpdateConflicts;
+    private final Counter versionMismatches;
+
+    public ReactiveExceptionHandler(MeterRegistry meterRegistry) {
+        this.concurrentUpdateConflicts = Counter.builder("store.product.conflicts")
+                .description("Product writes rejected because of a concurrent change")
+                .tag("reason", "concurrent_update")
+                .register(meterRegistry);
+        this.versionMismatches = Counter.builder("store.product.conflicts")
+                .description("Product writes rejected because of a concurrent change")
+                .tag("reason", "version_mismatch")
+                .register(meterRegistry);
+    }
+
+    @ExceptionHandler(ProductNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleProductNotFoundException(ProductNotFoundException ex,
+                                                                        ServerWebExchange exchange) {
+        return error(HttpStatus.NOT_FOUND, ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(ProductValidationException.class)
+    public ResponseEntity<ErrorResponse> handleProductValidationException(ProductValidationException ex,
+                                                                          ServerWebExchange exchange) {
+        return error(HttpStatus.BAD_REQUEST, ex.getMessage(), exchange);
+    }
+
+    // @Valid request bodies: field -> message, like MethodArgumentNotValidException on the servlet side
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Object> handleValidationExceptions(WebExchangeBindException ex) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getBindingResult().getFieldErrors().forEach(error ->
+                errors.put(error.getField(), error.getDefaultMessage())
+        );
+        return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
+    }
+
+    // Unreadable bodies, and parameters or path variables of the wrong type
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ErrorResponse> handleServerWebInputException(ServerWebInputException ex,
+                                                                       ServerWebExchange exchange) {
+        if (ex.getCause() instanceof TypeMismatchException mismatch && mismatch.getRequiredType() != null) {
+            return error(HttpStatus.BAD_REQUEST, String.format("Failed to convert value '%s' to required type '%s'.",
+                    mismatch.getValue(), mismatch.getRequiredType().getSimpleName()), exchange);
+        }
+        if (ex.getMethodParameter() != null && ex.getMethodParameter().hasParameterAnnotation(RequestBody.class)) {
+            return error(HttpStatus.BAD_REQUEST, "Malformed JSON or invalid data type for field.", exchange);
+        }
+        return error(HttpStatus.BAD_REQUEST, ex.getReason(), exchange);
+    }
+
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<ErrorResponse> handleAccessDeniedException(AccessDeniedException ex,
+                                                                     ServerWebExchange exchange) {
+        return error(HttpStatus.FORBIDDEN, "You do not have permission to access this resource.", exchange);
+    }
+
+    @ExceptionHandler(ConcurrencyConflictException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrencyConflictException(ConcurrencyConflictException ex,
+                                                                            ServerWebExchange exchange) {
+        concurrentUpdateConflicts.increment();
+        return error(HttpStatus.CONFLICT, ex.getMessage(), exchange);
+    }
+
+    // If-Match did not match the current version
+    @ExceptionHandler(ProductVersionMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleProductVersionMismatchException(ProductVersionMismatchException ex,
+                                                                               ServerWebExchange exchange) {
+        versionMismatches.increment();
+        return error(HttpStatus.PRECONDITION_FAILED, ex.getMessage(), exchange);
+    }
+
+    // A write broke a table constraint; only uk_products_name means the name is taken
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolationException(DataIntegrityViolationException ex,
+                                                                               ServerWebExchange exchange) {
+        return error(HttpStatus.CONFLICT, ConstraintViolations.message(ex), exchange);
+    }
+
+    // Unknown routes, unsupported methods or media types keep their own status
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ErrorResponse> handleResponseStatusException(ResponseStatusException ex,
+                                                                       ServerWebExchange exchange) {
+        return error(ex.getStatusCode(), ex.getReason(), exchange);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGlobalException(Exception ex, ServerWebExchange exchange) {
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage(), exchange);
+    }
+
+    // Same description as WebRequest.getDescription(false) on the servlet side
+    private static ResponseEntity<ErrorResponse> error(HttpStatusCode status, String message,
+                                                       ServerWebExchange exchange) {
+        ErrorResponse errorDetails = new ErrorResponse(status.value(), new Date(), message,
+                "uri=" + exchange.getRequest().getPath().value());
+        return new ResponseEntity<>(errorDetails, status);
+    }
+}
@@ -0,0 +1,41 @@
+package com.demo.store.mgmt.tool.audit;
+
+import com.demo.store.mgmt.tool.events.ProductChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Feeds committed price changes to the audit log. Runs on the request thread after commit, so
+// the only cost to the request is one queue offer.
+@Component
+public class PriceAuditListener {
+    private static final Logger logger = LoggerFactory.getLogger(PriceAuditListener.class);
+    private static final String SYSTEM_USER = "system";
+
+    private final PriceAuditLog priceAuditLog;
+
+    public PriceAuditListener(PriceAuditLog priceAuditLog) {
+        this.priceAuditLog = priceAuditLog;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() != ProductChangedEvent.Type.PRICE_CHANGED) {
+            return;
+        }
+        PriceAuditRecord record = new PriceAuditRecord(event.id(), event.version(), System.currentTimeMillis(),
+                event.previousPrice(), event.price(), currentUsername());
+        if (!priceAuditLog.append(record)) {
+            logger.warn("Audit queue full, price change of product {} to version {} not recorded", event.id(), event.version());
+        }
+    }
+
+    // With coalesced updates this is the user whose request ran the batch
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : SYSTEM_USER;
+    }
+}
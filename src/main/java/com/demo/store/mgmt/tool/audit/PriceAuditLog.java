@@ -0,0 +1,463 @@
+package com.demo.store.mgmt.tool.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// Append-only log of price changes in fixed-size binary records, written behind the request path.
+//
+// Producers add to a bounded lock-free queue and never wait; when it is full the record is dropped
+// and counted. A single writer thread drains the queue in batches into the active segment, a
+// memory-mapped file of fixed size, and forces it to disk every flush interval. A full segment is
+// sealed and a new one started. Compaction packs sealed segments that are only partly full or
+// hold records past the retention period into new, full segments.
+//
+// Record layout (little-endian, RECORD_SIZE bytes):
+//   0 productId | 8 version | 16 timestamp millis | 24 old price unscaled | 32 new price unscaled |
+//   40 old scale | 41 new scale | 42 username length | 43 committed marker | 44 username (UTF-8)
+public class PriceAuditLog implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(PriceAuditLog.class);
+
+    static final int RECORD_SIZE = 96;
+    private static final int USERNAME_OFFSET = 44;
+    private static final int USERNAME_BYTES = RECORD_SIZE - USERNAME_OFFSET;
+    private static final int MARKER_OFFSET = 43;
+    private static final byte COMMITTED = 1;
+    private static final long NO_PRICE = Long.MIN_VALUE;
+    // Scale of the NUMERIC(10, 2) price column
+    private static final int PRICE_SCALE = 2;
+    private static final int MAX_BATCH = 4096;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    // Live segments are "audit-<id>.seg"; compaction output is "compacted-<id>.seg" so it is never
+    // mistaken for the active segment on restart
+    private static final String LIVE_PREFIX = "audit-";
+    private static final String COMPACTED_PREFIX = "compacted-";
+    private static final String SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final int queueCapacity;
+    private final long forceIntervalNanos;
+    private final Duration retention;
+
+    private final ConcurrentLinkedQueue<PriceAuditRecord> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong nextSegmentId = new AtomicLong(1);
+    private final Counter appended;
+    private final Counter dropped;
+
+    // sealed, activePath and activeBuffer change together under the write lock (rollover, compaction)
+    private final ReentrantReadWriteLock segmentsLock = new ReentrantReadWriteLock();
+    private final List<Path> sealed = new ArrayList<>();
+    private Path activePath;
+    private MappedByteBuffer activeBuffer;
+    private int activeCapacity;
+    // Records in the active segment that readers may see; written by the writer thread only
+    private volatile int committedRecords;
+
+    private final Thread writer;
+    private final ScheduledExecutorService compactor;
+    private volatile boolean running = true;
+
+    public PriceAuditLog(Path directory, int recordsPerSegment, int queueCapacity, Duration forceInterval,
+                         Duration retention, Duration compactionInterval, MeterRegistry meterRegistry) throws IOException {
+        this.directory = directory;
+        this.recordsPerSegment = recordsPerSegment;
+        this.queueCapacity = queueCapacity;
+        this.forceIntervalNanos = forceInterval.toNanos();
+        this.retention = retention;
+        this.appended = Counter.builder("store.audit.records").tag("outcome", "queued").register(meterRegistry);
+        this.dropped = Counter.builder("store.audit.records").tag("outcome", "dropped").register(meterRegistry);
+        meterRegistry.gauge("store.audit.queue.size", queued);
+
+        open();
+        this.writer = new Thread(this::runWriter, "price-audit-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        this.compactor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "price-audit-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = compactionInterval.toMillis();
+        compactor.scheduleWithFixedDelay(this::compactQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // Never blocks; returns false if the record was dropped because the writer is too far behind
+    public boolean append(PriceAuditRecord record) {
+        if (!running || queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            dropped.increment();
+            return false;
+        }
+        queue.offer(record);
+        appended.increment();
+        return true;
+    }
+
+    // Every recorded change of one product, oldest first. Changes still queued are not included yet.
+    public List<PriceAuditRecord> history(long productId) throws IOException {
+        List<PriceAuditRecord> records = new ArrayList<>();
+        segmentsLock.readLock().lock();
+        try {
+            for (Path segment : sealed) {
+                try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                    ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    collect(buffer, (int) (channel.size() / RECORD_SIZE), productId, records);
+                }
+            }
+            collect(activeBuffer.duplicate(), committedRecords, productId, records);
+        } finally {
+            segmentsLock.readLock().unlock();
+        }
+        // A compaction interrupted by a crash can leave a record in two segments, as an exact copy.
+        // The version alone is no key: the log outlives an in-memory database, whose ids and
+        // versions start over on every boot.
+        Set<PriceAuditRecord> seen = new HashSet<>();
+        records.removeIf(record -> !seen.add(record));
+        records.sort(Comparator.comparingLong(PriceAuditRecord::version)
+                .thenComparingLong(PriceAuditRecord::timestampMillis));
+        return records;
+    }
+
+    int segmentCount() {
+        segmentsLock.readLock().lock();
+        try {
+            return sealed.size() + 1;
+        } finally {
+            segmentsLock.readLock().unlock();
+        }
+    }
+
+    // Blocks until everything queued so far is written and forced (shutdown and tests)
+    public void flush() {
+        while (queued.get() > 0 && writer.isAlive()) {
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        segmentsLock.readLock().lock();
+        try {
+            activeBuffer.force();
+        } finally {
+            segmentsLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        compactor.shutdownNow();
+        flush();
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path stale : files.filter(path -> path.getFileName().toString().endsWith(".tmp")).toList()) {
+                // Output of a compaction that didn't finish; its inputs are still in place
+                Files.delete(stale);
+            }
+        }
+        List<Path> live = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).forEach(path -> {
+                long id = segmentId(path);
+                nextSegmentId.accumulateAndGet(id + 1, Math::max);
+                if (path.getFileName().toString().startsWith(LIVE_PREFIX)) {
+                    live.add(path);
+                } else {
+                    sealed.add(path);
+                }
+            });
+        }
+        live.sort(Comparator.comparingLong(PriceAuditLog::segmentId));
+        if (live.isEmpty()) {
+            startSegment();
+            return;
+        }
+        // The newest live segment continues to be written after its last committed record
+        sealed.addAll(live.subList(0, live.size() - 1));
+        activePath = live.get(live.size() - 1);
+        activeBuffer = map(activePath, Files.size(activePath));
+        activeCapacity = (int) (Files.size(activePath) / RECORD_SIZE);
+        int committed = 0;
+        while (committed < activeCapacity && activeBuffer.get(committed * RECORD_SIZE + MARKER_OFFSET) == COMMITTED) {
+            committed++;
+        }
+        committedRecords = committed;
+    }
+
+    private void runWriter() {
+        long lastForce = System.nanoTime();
+        boolean dirty = false;
+        while (running || !queue.isEmpty()) {
+            int written = 0;
+            try {
+                written = drain();
+            } catch (IOException | RuntimeException ex) {
+                logger.error("Price audit writer failed, retrying: {}", ex.getMessage());
+                LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+            }
+            dirty |= written > 0;
+            long now = System.nanoTime();
+            if (dirty && now - lastForce >= forceIntervalNanos) {
+                activeBuffer.force();
+                lastForce = now;
+                dirty = false;
+            }
+            if (written == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        activeBuffer.force();
+    }
+
+    private int drain() throws IOException {
+        int written = 0;
+        PriceAuditRecord record;
+        while (written < MAX_BATCH && (record = queue.peek()) != null) {
+            if (committedRecords == activeCapacity) {
+                rollOver();
+            }
+            boolean encoded = write(activeBuffer, committedRecords * RECORD_SIZE, record);
+            queue.poll();
+            queued.decrementAndGet();
+            if (encoded) {
+                committedRecords++;
+                written++;
+            } else {
+                // Never left at the head of the queue, or everything behind it would be stuck
+                logger.error("Price change of product {} to version {} can't be recorded: price {} is out of range",
+                        record.productId(), record.version(), record.newPrice());
+                dropped.increment();
+            }
+        }
+        return written;
+    }
+
+    private void rollOver() throws IOException {
+        activeBuffer.force();
+        segmentsLock.writeLock().lock();
+        try {
+            sealed.add(activePath);
+            startSegment();
+        } finally {
+            segmentsLock.writeLock().unlock();
+        }
+    }
+
+    private void startSegment() throws IOException {
+        activePath = directory.resolve(LIVE_PREFIX + String.format("%020d", nextSegmentId.getAndIncrement()) + SUFFIX);
+        activeBuffer = map(activePath, (long) recordsPerSegment * RECORD_SIZE);
+        activeCapacity = recordsPerSegment;
+        committedRecords = 0;
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (IOException | RuntimeException ex) {
+            logger.warn("Price audit compaction failed: {}", ex.getMessage());
+        }
+    }
+
+    // Rewrites sealed segments that are partly empty or hold expired records; full segments
+    // without expired records are left alone, so the work doesn't grow with the whole history
+    void compact() throws IOException {
+        long cutoff = System.currentTimeMillis() - retention.toMillis();
+        List<Path> inputs = new ArrayList<>();
+        boolean expired = false;
+        segmentsLock.readLock().lock();
+        try {
+            for (Path segment : sealed) {
+                try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                    ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    int capacity = (int) (channel.size() / RECORD_SIZE);
+                    boolean full = capacity == recordsPerSegment && capacity > 0
+                            && buffer.get((capacity - 1) * RECORD_SIZE + MARKER_OFFSET) == COMMITTED;
+                    boolean hasExpired = capacity > 0 && buffer.get(MARKER_OFFSET) == COMMITTED
+                            && buffer.order(ByteOrder.LITTLE_ENDIAN).getLong(16) < cutoff;
+                    if (!full || hasExpired) {
+                        inputs.add(segment);
+                        expired |= hasExpired;
+                    }
+                }
+            }
+        } finally {
+            segmentsLock.readLock().unlock();
+        }
+        if (inputs.size() < 2 && !expired) {
+            return;
+        }
+
+        long kept = 0;
+        long removed = 0;
+        List<Path> outputs = new ArrayList<>();
+        MappedByteBuffer output = null;
+        int outputRecords = recordsPerSegment;
+        for (Path input : inputs) {
+            try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                        .order(ByteOrder.LITTLE_ENDIAN);
+                int capacity = (int) (channel.size() / RECORD_SIZE);
+                for (int i = 0; i < capacity; i++) {
+                    int offset = i * RECORD_SIZE;
+                    if (buffer.get(offset + MARKER_OFFSET) != COMMITTED) {
+                        continue;
+                    }
+                    if (buffer.getLong(offset + 16) < cutoff) {
+                        removed++;
+                        continue;
+                    }
+                    if (outputRecords == recordsPerSegment) {
+                        if (output != null) {
+                            output.force();
+                        }
+                        Path tmp = directory.resolve(COMPACTED_PREFIX
+                                + String.format("%020d", nextSegmentId.getAndIncrement()) + SUFFIX + ".tmp");
+                        outputs.add(tmp);
+                        output = map(tmp, (long) recordsPerSegment * RECORD_SIZE);
+                        outputRecords = 0;
+                    }
+                    output.put(outputRecords * RECORD_SIZE, buffer, offset, RECORD_SIZE);
+                    outputRecords++;
+                    kept++;
+                }
+            }
+        }
+        if (output != null) {
+            output.force();
+        }
+
+        List<Path> finished = new ArrayList<>(outputs.size());
+        for (Path tmp : outputs) {
+            String name = tmp.getFileName().toString();
+            Path target = tmp.resolveSibling(name.substring(0, name.length() - ".tmp".length()));
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            finished.add(target);
+        }
+        segmentsLock.writeLock().lock();
+        try {
+            sealed.removeAll(inputs);
+            sealed.addAll(finished);
+        } finally {
+            segmentsLock.writeLock().unlock();
+        }
+        for (Path input : inputs) {
+            Files.deleteIfExists(input);
+        }
+        logger.info("Compacted {} audit segments into {}: {} records kept, {} past retention removed",
+                inputs.size(), finished.size(), kept, removed);
+    }
+
+    private static MappedByteBuffer map(Path path, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        }
+    }
+
+    private static long segmentId(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(name.indexOf('-') + 1, name.length() - SUFFIX.length()));
+    }
+
+    // Returns false, leaving the slot untouched, if a price doesn't fit the record
+    private static boolean write(ByteBuffer buffer, int offset, PriceAuditRecord record) {
+        long oldUnscaled;
+        long newUnscaled;
+        try {
+            oldUnscaled = unscaled(record.oldPrice());
+            newUnscaled = unscaled(record.newPrice());
+        } catch (ArithmeticException ex) {
+            return false;
+        }
+        buffer.putLong(offset, record.productId());
+        buffer.putLong(offset + 8, record.version());
+        buffer.putLong(offset + 16, record.timestampMillis());
+        buffer.putLong(offset + 24, oldUnscaled);
+        buffer.putLong(offset + 32, newUnscaled);
+        buffer.put(offset + 40, (byte) PRICE_SCALE);
+        buffer.put(offset + 41, (byte) PRICE_SCALE);
+        byte[] username = truncate(record.username());
+        buffer.put(offset + 42, (byte) username.length);
+        buffer.put(offset + USERNAME_OFFSET, username);
+        // Marker last: a record is only visible once all of it has been written
+        buffer.put(offset + MARKER_OFFSET, COMMITTED);
+        return true;
+    }
+
+    private static void collect(ByteBuffer buffer, int records, long productId, List<PriceAuditRecord> out) {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < records; i++) {
+            int offset = i * RECORD_SIZE;
+            if (buffer.get(offset + MARKER_OFFSET) != COMMITTED || buffer.getLong(offset) != productId) {
+                continue;
+            }
+            long oldUnscaled = buffer.getLong(offset + 24);
+            BigDecimal oldPrice = oldUnscaled == NO_PRICE ? null : BigDecimal.valueOf(oldUnscaled, buffer.get(offset + 40));
+            BigDecimal newPrice = BigDecimal.valueOf(buffer.getLong(offset + 32), buffer.get(offset + 41));
+            byte[] username = new byte[buffer.get(offset + 42)];
+            buffer.get(offset + USERNAME_OFFSET, username);
+            out.add(new PriceAuditRecord(productId, buffer.getLong(offset + 8), buffer.getLong(offset + 16),
+                    oldPrice, newPrice, new String(username, StandardCharsets.UTF_8)));
+        }
+    }
+
+    // Stored at the column's scale, as the database holds them. Prices in events are whatever the
+    // caller sent, so the unscaled value may still not fit in a long (ArithmeticException).
+    private static long unscaled(BigDecimal price) {
+        if (price == null) {
+            return NO_PRICE;
+        }
+        return price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static byte[] truncate(String username) {
+        byte[] bytes = (username == null ? "" : username).getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= USERNAME_BYTES) {
+            return bytes;
+        }
+        byte[] truncated = new byte[USERNAME_BYTES];
+        System.arraycopy(bytes, 0, truncated, 0, USERNAME_BYTES);
+        return truncated;
+    }
+}
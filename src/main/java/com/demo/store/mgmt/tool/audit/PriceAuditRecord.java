@@ -0,0 +1,7 @@
+package com.demo.store.mgmt.tool.audit;
+
+import java.math.BigDecimal;
+
+// One price change as stored in the audit log. oldPrice is null when it wasn't known.
+public record PriceAuditRecord(long productId, long version, long timestampMillis, BigDecimal oldPrice,
+                               BigDecimal newPrice, String username) {}
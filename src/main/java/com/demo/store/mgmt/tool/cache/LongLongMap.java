@@ -0,0 +1,182 @@
+package com.demo.store.mgmt.tool.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+// Open-addressing hash map from positive long keys to long values, stored as interleaved
+// key/value pairs in one LongBuffer: on the Java heap, or in a direct buffer outside it so that
+// millions of entries add nothing for the GC to trace. Linear probing, and removals shift the
+// following entries back instead of leaving tombstones, so lookups never slow down with churn.
+//
+// Not thread-safe. get() never allocates and copes with a concurrent writer (it may return a
+// wrong answer but never fails or loops forever), so callers can pair it with an optimistic read.
+final class LongLongMap {
+
+    static final long NO_VALUE = Long.MIN_VALUE;
+    private static final long EMPTY = 0L;
+    private static final double LOAD_FACTOR = 0.6;
+    private static final int MAX_SLOTS = 1 << 26; // 1 GB of slots; a direct buffer stops short of 2 GB
+
+    private final boolean offHeap;
+    private LongBuffer slots;
+    private int size;
+    private int maxSize;
+
+    LongLongMap(int expectedSize, boolean offHeap) {
+        this.offHeap = offHeap;
+        allocate(slotsFor(expectedSize));
+    }
+
+    long get(long key) {
+        // 0 marks an empty slot, so it would "match" the first empty slot probed
+        if (key <= 0) {
+            return NO_VALUE;
+        }
+        LongBuffer table = slots;
+        // The mask comes from the buffer itself, so a racing resize can't pair it with the wrong table
+        int capacity = table.capacity() >> 1;
+        int mask = capacity - 1;
+        int slot = slot(key, mask);
+        for (int probes = 0; probes < capacity; probes++) {
+            long found = table.get(slot << 1);
+            if (found == key) {
+                return table.get((slot << 1) + 1);
+            }
+            if (found == EMPTY) {
+                return NO_VALUE;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NO_VALUE;
+    }
+
+    // Returns the previous value, or NO_VALUE
+    long put(long key, long value) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Keys must be positive: " + key);
+        }
+        int mask = mask();
+        int slot = slot(key, mask);
+        while (true) {
+            long found = slots.get(slot << 1);
+            if (found == key) {
+                long previous = slots.get((slot << 1) + 1);
+                slots.put((slot << 1) + 1, value);
+                return previous;
+            }
+            if (found == EMPTY) {
+                // Value first: a racing reader that finds the key must not see a stale value
+                slots.put((slot << 1) + 1, value);
+                slots.put(slot << 1, key);
+                if (++size > maxSize) {
+                    grow();
+                }
+                return NO_VALUE;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    long remove(long key) {
+        if (key <= 0) {
+            return NO_VALUE;
+        }
+        int mask = mask();
+        int slot = slot(key, mask);
+        while (true) {
+            long found = slots.get(slot << 1);
+            if (found == EMPTY) {
+                return NO_VALUE;
+            }
+            if (found == key) {
+                long previous = slots.get((slot << 1) + 1);
+                shiftBack(slot, mask);
+                size--;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    long memoryBytes() {
+        return (long) slots.capacity() * Long.BYTES;
+    }
+
+    boolean isOffHeap() {
+        return offHeap;
+    }
+
+    // Moves later entries of the same probe run into the gap, so no run is ever broken by a hole
+    private void shiftBack(int gap, int mask) {
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & mask;
+            long key = slots.get(slot << 1);
+            if (key == EMPTY) {
+                break;
+            }
+            int home = slot(key, mask);
+            // Entry may move into the gap only if its home slot is not between the gap and itself
+            boolean movable = gap <= slot ? (home <= gap || home > slot) : (home <= gap && home > slot);
+            if (movable) {
+                slots.put((gap << 1) + 1, slots.get((slot << 1) + 1));
+                slots.put(gap << 1, key);
+                gap = slot;
+            }
+        }
+        slots.put(gap << 1, EMPTY);
+        slots.put((gap << 1) + 1, 0L);
+    }
+
+    private void grow() {
+        int capacity = slots.capacity() >> 1;
+        if (capacity >= MAX_SLOTS) {
+            throw new IllegalStateException("Map is full at " + size + " entries");
+        }
+        LongBuffer old = slots;
+        allocate(capacity << 1);
+        int mask = mask();
+        for (int i = 0; i < capacity; i++) {
+            long key = old.get(i << 1);
+            if (key != EMPTY) {
+                int slot = slot(key, mask);
+                while (slots.get(slot << 1) != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                slots.put((slot << 1) + 1, old.get((i << 1) + 1));
+                slots.put(slot << 1, key);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        LongBuffer table = offHeap
+                ? ByteBuffer.allocateDirect(capacity * 2 * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer()
+                : LongBuffer.wrap(new long[capacity * 2]);
+        maxSize = (int) (capacity * LOAD_FACTOR);
+        slots = table;
+    }
+
+    private int mask() {
+        return (slots.capacity() >> 1) - 1;
+    }
+
+    private static int slotsFor(int expectedSize) {
+        long needed = (long) Math.ceil(Math.max(expectedSize, 16) / LOAD_FACTOR);
+        if (needed > MAX_SLOTS) {
+            throw new IllegalArgumentException("At most " + (int) (MAX_SLOTS * LOAD_FACTOR) + " entries are supported");
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    // Sequential ids would otherwise fill neighbouring slots and build long probe runs
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
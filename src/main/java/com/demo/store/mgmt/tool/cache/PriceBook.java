@@ -0,0 +1,146 @@
+package com.demo.store.mgmt.tool.cache;
+
+import com.demo.store.mgmt.tool.dto.ProductSnapshot;
+import com.demo.store.mgmt.tool.events.ProductChangedEvent;
+import com.demo.store.mgmt.tool.repositories.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.locks.StampedLock;
+import java.util.stream.Stream;
+
+// Product id -> current price in cents, for callers that need nothing but the price.
+//
+// Each value packs the price in cents (the column is NUMERIC(10, 2), so at most 34 bits) with the
+// row version above it. Like ProductCache, an entry is only replaced by a newer version, so commit
+// listeners running out of order can't leave an old price behind; a deleted product keeps a
+// tombstone that no late event can overwrite.
+//
+// Lookups take an optimistic stamp and retry under the read lock only if a write got in between,
+// so the common case is a few buffer reads and no allocation.
+@Component
+public class PriceBook {
+    private static final Logger logger = LoggerFactory.getLogger(PriceBook.class);
+
+    public static final long NO_PRICE = Long.MIN_VALUE;
+    private static final int CENTS_BITS = 34;
+    private static final long CENTS_MASK = (1L << CENTS_BITS) - 1;
+    // Versions past this stop increasing; equal versions still replace each other
+    private static final long MAX_VERSION = (1L << (63 - CENTS_BITS)) - 2;
+    private static final long TOMBSTONE = Long.MAX_VALUE;
+
+    private final LongLongMap prices;
+    private final StampedLock lock = new StampedLock();
+    private final ProductRepository productRepository;
+    private volatile boolean ready;
+
+    public PriceBook(ProductRepository productRepository,
+                     MeterRegistry meterRegistry,
+                     @Value("${store.price-book.expected-size:1000000}") int expectedSize,
+                     @Value("${store.price-book.off-heap:true}") boolean offHeap) {
+        this.productRepository = productRepository;
+        this.prices = new LongLongMap(expectedSize, offHeap);
+        Gauge.builder("store.price-book.entries", this, PriceBook::size).register(meterRegistry);
+        Gauge.builder("store.price-book.memory", this, PriceBook::memoryBytes)
+                .baseUnit("bytes")
+                .tag("area", offHeap ? "offheap" : "heap")
+                .register(meterRegistry);
+    }
+
+    // Price in cents, or NO_PRICE for an unknown or deleted product
+    public long priceCents(long productId) {
+        long stamp = lock.tryOptimisticRead();
+        long value = prices.get(productId);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                value = prices.get(productId);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return value == LongLongMap.NO_VALUE || value == TOMBSTONE ? NO_PRICE : value & CENTS_MASK;
+    }
+
+    // Until the initial load has finished a missing price proves nothing
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long start = System.nanoTime();
+        long[] loaded = {0};
+        try (Stream<ProductSnapshot> products = productRepository.streamSnapshots()) {
+            products.forEach(snapshot -> {
+                putIfNewer(snapshot.id(), snapshot.price(), snapshot.version());
+                loaded[0]++;
+            });
+        }
+        ready = true;
+        logger.info("Loaded {} prices into the price book in {} ms", loaded[0], (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        switch (event.type()) {
+            case CREATED, PRICE_CHANGED -> putIfNewer(event.id(), event.price(), event.version());
+            case DELETED -> {
+                long stamp = lock.writeLock();
+                try {
+                    prices.put(event.id(), TOMBSTONE);
+                } finally {
+                    lock.unlockWrite(stamp);
+                }
+            }
+        }
+    }
+
+    void putIfNewer(long productId, BigDecimal price, Long version) {
+        long versionBits = Math.min(version == null ? 0L : version, MAX_VERSION);
+        long value = (versionBits << CENTS_BITS) | toCents(price);
+        long stamp = lock.writeLock();
+        try {
+            long current = prices.get(productId);
+            if (current == LongLongMap.NO_VALUE || (current != TOMBSTONE && current >>> CENTS_BITS <= versionBits)) {
+                prices.put(productId, value);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private int size() {
+        long stamp = lock.readLock();
+        try {
+            return prices.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private long memoryBytes() {
+        long stamp = lock.readLock();
+        try {
+            return prices.memoryBytes();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Rounds like the NUMERIC(10, 2) column does when the row is written
+    public static long toCents(BigDecimal price) {
+        return price.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,115 @@
+package com.demo.store.mgmt.tool.cache;
+
+import com.demo.store.mgmt.tool.dto.ProductSnapshot;
+import com.demo.store.mgmt.tool.events.ProductChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Read-through cache of product snapshots by id and by name.
+//
+// Every entry carries the row version, and an entry is only ever replaced by a newer one. A reader
+// that loaded a row just before a write committed therefore can't overwrite the fresher value the
+// commit listener put in. Deletes leave a tombstone so such a reader can't resurrect the row either.
+@Component
+public class ProductCache {
+
+    // Rough per-entry cost: cache node, snapshot, Long/BigDecimal boxes and the String header
+    private static final long ENTRY_OVERHEAD_BYTES = 200;
+    private static final long TOMBSTONE_VERSION = Long.MAX_VALUE;
+
+    private final Cache<Long, Entry> byId;
+    private final Cache<String, Entry> byName;
+
+    public ProductCache(MeterRegistry meterRegistry,
+                        @Value("${store.product-cache.max-size:100000}") long maxSize,
+                        @Value("${store.product-cache.ttl:10m}") Duration ttl) {
+        this.byId = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        this.byName = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "products.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, byName, "products.byName");
+    }
+
+    // Returns null on a miss or for a deleted product
+    public ProductSnapshot getById(Long id) {
+        Entry entry = byId.getIfPresent(id);
+        return entry == null ? null : entry.snapshot();
+    }
+
+    public ProductSnapshot getByName(String name) {
+        Entry entry = byName.getIfPresent(name);
+        return entry == null ? null : entry.snapshot();
+    }
+
+    // Used by readers after a database load
+    public void putIfNewer(ProductSnapshot snapshot) {
+        Entry entry = new Entry(snapshot, snapshot.version() == null ? 0L : snapshot.version());
+        byId.asMap().merge(snapshot.id(), entry, ProductCache::newer);
+        byName.asMap().merge(snapshot.name(), entry, ProductCache::newer);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        switch (event.type()) {
+            case CREATED, PRICE_CHANGED ->
+                    putIfNewer(new ProductSnapshot(event.id(), event.name(), event.price(), event.version()));
+            case DELETED -> {
+                Entry tombstone = new Entry(null, TOMBSTONE_VERSION);
+                byId.put(event.id(), tombstone);
+                if (event.name() != null) {
+                    byName.put(event.name(), tombstone);
+                }
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        byId.invalidateAll();
+        byName.invalidateAll();
+    }
+
+    public Map<String, Object> statistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("byId", statistics(byId.stats(), byId.estimatedSize(), estimatedBytes(byId.asMap())));
+        statistics.put("byName", statistics(byName.stats(), byName.estimatedSize(), estimatedBytes(byName.asMap())));
+        return statistics;
+    }
+
+    private static Map<String, Object> statistics(CacheStats stats, long size, long estimatedBytes) {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("size", size);
+        statistics.put("hitCount", stats.hitCount());
+        statistics.put("missCount", stats.missCount());
+        statistics.put("hitRatio", stats.hitRate());
+        statistics.put("evictionCount", stats.evictionCount());
+        statistics.put("estimatedMemoryBytes", estimatedBytes);
+        return statistics;
+    }
+
+    private static long estimatedBytes(Map<?, Entry> entries) {
+        long bytes = 0;
+        for (Entry entry : entries.values()) {
+            bytes += ENTRY_OVERHEAD_BYTES;
+            if (entry.snapshot() != null) {
+                bytes += entry.snapshot().name().length();
+            }
+        }
+        return bytes;
+    }
+
+    private static Entry newer(Entry existing, Entry candidate) {
+        return candidate.version() > existing.version() ? candidate : existing;
+    }
+
+    // snapshot is null for a tombstone
+    private record Entry(ProductSnapshot snapshot, long version) {}
+}
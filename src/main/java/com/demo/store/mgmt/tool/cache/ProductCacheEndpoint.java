@@ -0,0 +1,31 @@
+package com.demo.store.mgmt.tool.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// GET /actuator/productcache for hit ratio, evictions and estimated footprint; DELETE clears it
+// (admins only, see SecurityConfig)
+@Component
+@Endpoint(id = "productcache")
+public class ProductCacheEndpoint {
+
+    private final ProductCache productCache;
+
+    public ProductCacheEndpoint(ProductCache productCache) {
+        this.productCache = productCache;
+    }
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        return productCache.statistics();
+    }
+
+    @DeleteOperation
+    public void clear() {
+        productCache.invalidateAll();
+    }
+}
@@ -0,0 +1,49 @@
+package com.demo.store.mgmt.tool.cache;
+
+import com.demo.store.mgmt.tool.dto.ProductSnapshot;
+import com.demo.store.mgmt.tool.repositories.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+// With a persistent database the catalog is already there at startup, so the product cache can
+// be filled before the first requests arrive instead of taking a miss per product.
+@Component
+@ConditionalOnProperty(name = "store.product-cache.warm-on-startup", havingValue = "true")
+public class ProductCacheWarmer {
+    private static final Logger logger = LoggerFactory.getLogger(ProductCacheWarmer.class);
+
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final long limit;
+
+    public ProductCacheWarmer(ProductRepository productRepository,
+                              ProductCache productCache,
+                              @Value("${store.product-cache.warm-limit:100000}") long limit) {
+        this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.limit = limit;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warm() {
+        long start = System.nanoTime();
+        long[] loaded = {0};
+        try (Stream<ProductSnapshot> products = productRepository.streamSnapshots()) {
+            // putIfNewer never replaces a fresher entry written by a request that beat us to it
+            products.limit(limit).forEach(snapshot -> {
+                productCache.putIfNewer(snapshot);
+                loaded[0]++;
+            });
+        }
+        logger.info("Warmed product cache with {} products in {} ms", loaded[0], (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,28 @@
+package com.demo.store.mgmt.tool.config;
+
+import com.demo.store.mgmt.tool.audit.PriceAuditLog;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+public class AuditConfig {
+
+    // close() drains the queue and forces the active segment on shutdown
+    @Bean(destroyMethod = "close")
+    public PriceAuditLog priceAuditLog(@Value("${store.audit.directory:./data/audit}") Path directory,
+                                       @Value("${store.audit.records-per-segment:65536}") int recordsPerSegment,
+                                       @Value("${store.audit.queue-capacity:100000}") int queueCapacity,
+                                       @Value("${store.audit.force-interval:1s}") Duration forceInterval,
+                                       @Value("${store.audit.retention:365d}") Duration retention,
+                                       @Value("${store.audit.compaction-interval:1h}") Duration compactionInterval,
+                                       MeterRegistry meterRegistry) throws IOException {
+        return new PriceAuditLog(directory, recordsPerSegment, queueCapacity, forceInterval, retention,
+                compactionInterval, meterRegistry);
+    }
+}
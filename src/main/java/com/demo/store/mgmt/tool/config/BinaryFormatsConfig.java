@@ -0,0 +1,33 @@
+package com.demo.store.mgmt.tool.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+// Binary alternatives to JSON, chosen by the Accept header. Both are built from Boot's Jackson
+// builder so they serialize exactly what the JSON converter does. Prices need no special
+// handling: CBOR writes a BigDecimal as a decimal fraction (exponent and integer mantissa) and
+// Smile as scale plus unscaled bytes, so 12.50 takes a few bytes and is decoded exactly.
+@Configuration
+public class BinaryFormatsConfig {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    // Beans of these types replace the defaults Spring MVC would otherwise register
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        // Repeated field names become back-references, which is most of the win on lists. Shared string
+        // values stay off: product names are unique, so there is nothing to refer back to
+        SmileFactory factory = new SmileFactory();
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(factory).build());
+    }
+}
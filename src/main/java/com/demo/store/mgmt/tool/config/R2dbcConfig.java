@@ -0,0 +1,56 @@
+package com.demo.store.mgmt.tool.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+// R2DBC access to the same H2 database for the reactive profile. r2dbc-h2 runs H2 on the
+// subscribing thread, so this is reactive in API rather than non-blocking. JPA still owns the
+// schema, data.sql and the startup loads; only the request path goes through R2DBC.
+//
+// The pool is deliberately not a ConnectionFactory bean: Boot would then also run data.sql through
+// it and register an R2dbcTransactionManager, which would take the place of the JPA one.
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class R2dbcConfig {
+
+    private final ConnectionPool connectionPool;
+
+    public R2dbcConfig(@Value("${store.r2dbc.url:r2dbc:h2:mem:///testdb}") String url,
+                       @Value("${spring.datasource.username:sa}") String username,
+                       @Value("${spring.datasource.password:}") String password,
+                       @Value("${store.r2dbc.pool.initial-size:10}") int initialSize,
+                       @Value("${store.r2dbc.pool.max-size:20}") int maxSize,
+                       @Value("${store.r2dbc.pool.max-acquire-time:5s}") Duration maxAcquireTime) {
+        // Same credentials as the JDBC pool
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get(options))
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxAcquireTime(maxAcquireTime)
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient databaseClient() {
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @PreDestroy
+    public void close() {
+        connectionPool.dispose();
+    }
+}
@@ -0,0 +1,66 @@
+package com.demo.store.mgmt.tool.config;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Opt-in mode (--spring.profiles.active=virtual-threads, Java 21+) that serves every request and
+// async task on its own virtual thread. Blocking on JDBC or BCrypt then only parks a virtual thread
+// instead of holding one of Tomcat's 200 platform threads, so the bottleneck moves to the database,
+// which is why connections are handed out through a ConnectionLimitingDataSource.
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadsConfig {
+
+    // Still compiled for Java 17, so the Java 21 factory method is looked up at runtime
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalStateException("The virtual-threads profile needs Java 21 or later, running on "
+                    + Runtime.version(), ex);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Could not create a virtual thread executor", ex);
+        }
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandler(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    // Replaces Boot's pooled applicationTaskExecutor, which Spring MVC also uses for async requests
+    @Bean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(
+            @Value("${store.datasource.max-concurrent-connections:10}") int maxConcurrentConnections,
+            @Value("${store.datasource.connection-acquire-timeout:5s}") Duration acquireTimeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionLimitingDataSource)) {
+                    return new ConnectionLimitingDataSource(dataSource, maxConcurrentConnections,
+                            acquireTimeout.toMillis());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,41 @@
+package com.demo.store.mgmt.tool.config.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Endpoint latency comes from Boot's http.server.requests (percentiles are set in
+// application.properties); this adds service-level @Timed support and per-request query counts.
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+    private final long queryWarnThreshold;
+
+    public MetricsConfig(MeterRegistry meterRegistry,
+                         @Value("${store.metrics.query-warn-threshold:20}") long queryWarnThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.queryWarnThreshold = queryWarnThreshold;
+    }
+
+    @Bean
+    public TimedAspect timedAspect() {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountingCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCounter());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryCountInterceptor(meterRegistry, queryWarnThreshold));
+    }
+}
@@ -0,0 +1,46 @@
+package com.demo.store.mgmt.tool.config.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+// Records how many queries each endpoint runs, tagged like http.server.requests, and warns about
+// requests above the threshold. A count that grows with the result size points at an N+1.
+public class QueryCountInterceptor implements HandlerInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(QueryCountInterceptor.class);
+
+    private final MeterRegistry meterRegistry;
+    private final long warnThreshold;
+
+    public QueryCountInterceptor(MeterRegistry meterRegistry, long warnThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryCounter.reset();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        long queries = QueryCounter.current();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        DistributionSummary.builder("http.server.requests.queries")
+                .description("SQL statements executed per request")
+                .tags("method", request.getMethod(), "uri", uri)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(queries);
+        if (queries > warnThreshold) {
+            logger.warn("{} {} executed {} queries", request.getMethod(), uri, queries);
+        }
+    }
+}
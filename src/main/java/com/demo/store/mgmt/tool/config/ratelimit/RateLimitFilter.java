@@ -0,0 +1,97 @@
+package com.demo.store.mgmt.tool.config.ratelimit;
+
+import com.demo.store.mgmt.tool.advice.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+// Runs in the security chain after authentication, so budgets are per user rather than per IP.
+// Over budget: 429 with the wait in Retry-After. Too many requests in flight: 503.
+// Not a @Component, otherwise Boot would also register it as a plain servlet filter.
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RequestRateLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final Counter readRejections;
+    private final Counter writeRejections;
+    private final Counter shed;
+
+    public RateLimitFilter(RequestRateLimiter limiter, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+        this.readRejections = rejections(meterRegistry, "read_budget");
+        this.writeRejections = rejections(meterRegistry, "write_budget");
+        this.shed = rejections(meterRegistry, "concurrency");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !limiter.isEnabled() || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean write = !("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod())
+                || "OPTIONS".equals(request.getMethod()));
+        long waitNanos = limiter.tryAcquire(caller(request), write);
+        if (waitNanos > 0) {
+            (write ? writeRejections : readRejections).increment();
+            reject(request, response, HttpStatus.TOO_MANY_REQUESTS, waitNanos, "Rate limit exceeded, retry later.");
+            return;
+        }
+        if (!limiter.tryEnter()) {
+            shed.increment();
+            reject(request, response, HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1),
+                    "Server is busy, retry later.");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // Async responses (streams, SSE) leave here when the handler returns, not when they finish
+            limiter.exit();
+        }
+    }
+
+    private static String caller(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated()) {
+            return "ip:" + request.getRemoteAddr();
+        }
+        return "user:" + authentication.getName();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                        long waitNanos, String message) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(status.value(), new Date(), message, "uri=" + request.getRequestURI()));
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("store.rate-limit.rejected")
+                .description("Requests rejected by the rate limiter")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,104 @@
+package com.demo.store.mgmt.tool.config.ratelimit;
+
+import com.demo.store.mgmt.tool.advice.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+// RateLimitFilter for the reactive security chain, with the same budgets, responses and metrics.
+// The in-flight slot is held until the response completes, streams included.
+public class RateLimitWebFilter implements WebFilter {
+
+    private final RequestRateLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final Counter readRejections;
+    private final Counter writeRejections;
+    private final Counter shed;
+
+    public RateLimitWebFilter(RequestRateLimiter limiter, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+        this.readRejections = rejections(meterRegistry, "read_budget");
+        this.writeRejections = rejections(meterRegistry, "write_budget");
+        this.shed = rejections(meterRegistry, "concurrency");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!limiter.isEnabled() || !request.getPath().value().startsWith("/api/")) {
+            return chain.filter(exchange);
+        }
+        HttpMethod method = request.getMethod();
+        boolean write = !(HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method)
+                || HttpMethod.OPTIONS.equals(method));
+        return caller(request).flatMap(caller -> {
+            long waitNanos = limiter.tryAcquire(caller, write);
+            if (waitNanos > 0) {
+                (write ? writeRejections : readRejections).increment();
+                return reject(exchange, HttpStatus.TOO_MANY_REQUESTS, waitNanos, "Rate limit exceeded, retry later.");
+            }
+            if (!limiter.tryEnter()) {
+                shed.increment();
+                return reject(exchange, HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1),
+                        "Server is busy, retry later.");
+            }
+            return chain.filter(exchange).doFinally(signal -> limiter.exit());
+        });
+    }
+
+    private static Mono<String> caller(ServerHttpRequest request) {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(authentication -> !(authentication instanceof AnonymousAuthenticationToken)
+                        && authentication.isAuthenticated())
+                .map(Authentication::getName)
+                .map(name -> "user:" + name)
+                .switchIfEmpty(Mono.fromSupplier(() -> "ip:" + remoteAddress(request)));
+    }
+
+    private static String remoteAddress(ServerHttpRequest request) {
+        InetSocketAddress address = request.getRemoteAddress();
+        if (address == null) {
+            return "unknown";
+        }
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, HttpStatus status, long waitNanos, String message) {
+        long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        ErrorResponse error = new ErrorResponse(status.value(), new Date(), message,
+                "uri=" + exchange.getRequest().getPath().value());
+        return response.writeWith(Mono.fromCallable(() ->
+                response.bufferFactory().wrap(objectMapper.writeValueAsBytes(error))));
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("store.rate-limit.rejected")
+                .description("Requests rejected by the rate limiter")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
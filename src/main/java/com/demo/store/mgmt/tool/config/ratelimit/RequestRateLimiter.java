@@ -0,0 +1,72 @@
+package com.demo.store.mgmt.tool.config.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+
+// Per-user read and write budgets plus a global cap on requests in flight. Users that have been
+// idle for a while are evicted, and the number tracked is bounded, so state can't grow with
+// the number of distinct callers.
+@Component
+public class RequestRateLimiter {
+
+    private final boolean enabled;
+    private final double readRate;
+    private final int readBurst;
+    private final double writeRate;
+    private final int writeBurst;
+    private final Cache<String, Buckets> buckets;
+    private final Semaphore inFlight;
+
+    public RequestRateLimiter(MeterRegistry meterRegistry,
+                              @Value("${store.rate-limit.enabled:true}") boolean enabled,
+                              @Value("${store.rate-limit.read.rate:100}") double readRate,
+                              @Value("${store.rate-limit.read.burst:200}") int readBurst,
+                              @Value("${store.rate-limit.write.rate:20}") double writeRate,
+                              @Value("${store.rate-limit.write.burst:40}") int writeBurst,
+                              @Value("${store.rate-limit.max-concurrent-requests:200}") int maxConcurrentRequests,
+                              @Value("${store.rate-limit.max-tracked-users:100000}") long maxTrackedUsers,
+                              @Value("${store.rate-limit.idle-eviction:10m}") Duration idleEviction) {
+        this.enabled = enabled;
+        this.readRate = readRate;
+        this.readBurst = readBurst;
+        this.writeRate = writeRate;
+        this.writeBurst = writeBurst;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxTrackedUsers)
+                .expireAfterAccess(idleEviction)
+                .build();
+        this.inFlight = new Semaphore(maxConcurrentRequests);
+        meterRegistry.gauge("store.rate-limit.in-flight", inFlight,
+                semaphore -> maxConcurrentRequests - semaphore.availablePermits());
+        meterRegistry.gauge("store.rate-limit.tracked-users", buckets, Cache::estimatedSize);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Returns 0 if the request may proceed, otherwise the nanos until this caller has budget again
+    public long tryAcquire(String caller, boolean write) {
+        long now = System.nanoTime();
+        Buckets callerBuckets = buckets.get(caller, key -> new Buckets(
+                new TokenBucket(readRate, readBurst, now), new TokenBucket(writeRate, writeBurst, now)));
+        return (write ? callerBuckets.write() : callerBuckets.read()).tryAcquire(now);
+    }
+
+    // Non-blocking: when the server is saturated, shedding now beats queueing until latency collapses
+    public boolean tryEnter() {
+        return inFlight.tryAcquire();
+    }
+
+    public void exit() {
+        inFlight.release();
+    }
+
+    private record Buckets(TokenBucket read, TokenBucket write) {}
+}
@@ -0,0 +1,34 @@
+package com.demo.store.mgmt.tool.config.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket in its GCRA ("virtual scheduling") form: instead of a token count and a refill
+// timestamp, the whole state is the theoretical arrival time of the next request, held in one
+// AtomicLong and advanced by CAS. No locks, no background refill.
+final class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        this.emissionIntervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * Math.max(0, burst - 1);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    // Returns 0 if a permit was taken, otherwise how long (in nanos) until one will be available
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long base = Math.max(arrival, nowNanos);
+            long earliest = base - burstToleranceNanos;
+            if (nowNanos < earliest) {
+                return earliest - nowNanos;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, base + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.demo.store.mgmt.tool.config.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+// Successful username/password authentications, shared by the servlet provider and the reactive
+// manager. Keys are a salted SHA-256 of username and password (random salt per JVM).
+class AuthenticationCache {
+
+    private final Cache<String, Authentication> cache;
+    private final byte[] salt = new byte[16];
+
+    AuthenticationCache(Duration ttl, long maxSize, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        new SecureRandom().nextBytes(salt);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "authentication");
+    }
+
+    // Returns null on a miss, or when the request carries no credentials
+    Authentication get(Authentication authentication) {
+        if (authentication.getCredentials() == null) {
+            return null;
+        }
+        return cache.getIfPresent(cacheKey(authentication.getName(), authentication.getCredentials().toString()));
+    }
+
+    // Stores the result without its credentials and returns what was stored
+    Authentication put(Authentication authentication, Authentication result) {
+        Authentication authenticated = UsernamePasswordAuthenticationToken.authenticated(
+                result.getPrincipal(), null, result.getAuthorities());
+        if (authentication.getCredentials() != null) {
+            cache.put(cacheKey(authentication.getName(), authentication.getCredentials().toString()), authenticated);
+        }
+        return authenticated;
+    }
+
+    void evictUser(String username) {
+        cache.asMap().values().removeIf(authentication -> authentication.getName().equals(username));
+    }
+
+    void evictAll() {
+        cache.invalidateAll();
+    }
+
+    private String cacheKey(String username, String password) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(salt);
+            digest.update(username.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0); // Separator, so ("ab", "c") and ("a", "bc") never collide
+            digest.update(password.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
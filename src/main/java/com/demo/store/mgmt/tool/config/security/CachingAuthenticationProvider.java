@@ -0,0 +1,55 @@
+package com.demo.store.mgmt.tool.config.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+import java.time.Duration;
+
+// Remembers successful username/password authentications, so repeat callers skip both the
+// users/authorities lookup and the BCrypt check. Failed attempts are never cached.
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private final AuthenticationProvider delegate;
+    private final AuthenticationCache cache;
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, Duration ttl, long maxSize,
+                                         MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.cache = new AuthenticationCache(ttl, maxSize, meterRegistry);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (authentication.getCredentials() == null) {
+            return delegate.authenticate(authentication);
+        }
+        Authentication cached = cache.get(authentication);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Throws on bad credentials or a disabled account, so only successes reach the cache
+        Authentication result = delegate.authenticate(authentication);
+        if (result == null) {
+            return null;
+        }
+        return cache.put(authentication, result);
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+
+    // Must be called whenever a user is disabled or their authorities change
+    public void evictUser(String username) {
+        cache.evictUser(username);
+    }
+
+    public void evictAll() {
+        cache.evictAll();
+    }
+}
@@ -0,0 +1,39 @@
+package com.demo.store.mgmt.tool.config.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.core.Authentication;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+// Reactive counterpart of CachingAuthenticationProvider: a hit is answered on the calling thread,
+// a miss goes to the delegate (R2DBC lookup, BCrypt off the event loop). Failures are not cached.
+public class CachingReactiveAuthenticationManager implements ReactiveAuthenticationManager {
+
+    private final ReactiveAuthenticationManager delegate;
+    private final AuthenticationCache cache;
+
+    public CachingReactiveAuthenticationManager(ReactiveAuthenticationManager delegate, Duration ttl, long maxSize,
+                                                MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.cache = new AuthenticationCache(ttl, maxSize, meterRegistry);
+    }
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        if (authentication.getCredentials() == null) {
+            return delegate.authenticate(authentication);
+        }
+        Authentication cached = cache.get(authentication);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return delegate.authenticate(authentication).map(result -> cache.put(authentication, result));
+    }
+
+    // Must be called whenever a user is disabled or their authorities change
+    public void evictUser(String username) {
+        cache.evictUser(username);
+    }
+}
@@ -0,0 +1,80 @@
+package com.demo.store.mgmt.tool.config.security;
+
+import com.demo.store.mgmt.tool.config.ratelimit.RateLimitWebFilter;
+import com.demo.store.mgmt.tool.config.ratelimit.RequestRateLimiter;
+import com.demo.store.mgmt.tool.services.ReactiveUserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverterAdapter;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+import java.time.Duration;
+
+// The reactive profile's version of SecurityConfig: same HTTP Basic + bearer token rules, same
+// login cache and rate limits. The user lookup goes through R2DBC and BCrypt runs off the event loop
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+public class ReactiveSecurityConfig {
+
+    // Users are read through R2DBC; the BCrypt check runs on the bounded elastic scheduler
+    @Bean
+    public ReactiveAuthenticationManager reactiveAuthenticationManager(
+            ReactiveUserService userService,
+            PasswordEncoder passwordEncoder,
+            MeterRegistry meterRegistry,
+            @Value("${store.security.auth-cache.enabled:true}") boolean cacheEnabled,
+            @Value("${store.security.auth-cache.ttl:5m}") Duration cacheTtl,
+            @Value("${store.security.auth-cache.max-size:10000}") long cacheMaxSize) {
+        UserDetailsRepositoryReactiveAuthenticationManager manager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(userService);
+        manager.setPasswordEncoder(passwordEncoder);
+        if (!cacheEnabled) {
+            return manager;
+        }
+        return new CachingReactiveAuthenticationManager(manager, cacheTtl, cacheMaxSize, meterRegistry);
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http,
+                                                         ReactiveAuthenticationManager authenticationManager,
+                                                         ReactiveJwtDecoder jwtDecoder,
+                                                         RequestRateLimiter rateLimiter,
+                                                         ObjectMapper objectMapper,
+                                                         MeterRegistry meterRegistry) {
+        http.csrf(csrf -> csrf.disable())
+                .cors(cors -> cors.disable())
+                .authorizeExchange(exchanges -> exchanges
+                        // Actuator write operations are for admins only, as in the servlet chain
+                        .pathMatchers(HttpMethod.POST, "/actuator/**").hasRole("ADMIN")
+                        .pathMatchers(HttpMethod.DELETE, "/actuator/**").hasRole("ADMIN")
+                        .anyExchange().authenticated())
+                .httpBasic(basic -> basic.authenticationManager(authenticationManager))
+                .oauth2ResourceServer(oauth2 -> oauth2
+                        .jwt(jwt -> jwt.jwtDecoder(jwtDecoder)
+                                .jwtAuthenticationConverter(
+                                        new ReactiveJwtAuthenticationConverterAdapter(TokenConfig.authenticationConverter()))))
+                // Stateless, like the servlet chain: no WebSession is created or read
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                // After authentication, so the caller is known; before authorization and the handlers
+                .addFilterBefore(new RateLimitWebFilter(rateLimiter, objectMapper, meterRegistry),
+                        SecurityWebFiltersOrder.AUTHORIZATION);
+
+        return http.build();
+    }
+}
@@ -1,18 +1,33 @@
 package com.demo.store.mgmt.tool.config.security;
 
+import com.demo.store.mgmt.tool.config.ratelimit.RateLimitFilter;
+import com.demo.store.mgmt.tool.config.ratelimit.RequestRateLimiter;
 import com.demo.store.mgmt.tool.services.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 
 import org.springframework.security.config.Customizer;
 
+import java.time.Duration;
+
+// Servlet stack only; the reactive profile uses ReactiveSecurityConfig
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
 public class SecurityConfig {
@@ -23,13 +38,28 @@ public class SecurityConfig {
         this.userService = userService;
     }
 
+    // Being the only AuthenticationProvider bean, this replaces the default DAO provider for HTTP Basic
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public AuthenticationProvider authenticationProvider(
+            PasswordEncoder passwordEncoder,
+            MeterRegistry meterRegistry,
+            @Value("${store.security.auth-cache.enabled:true}") boolean cacheEnabled,
+            @Value("${store.security.auth-cache.ttl:5m}") Duration cacheTtl,
+            @Value("${store.security.auth-cache.max-size:10000}") long cacheMaxSize) {
+        DaoAuthenticationProvider daoProvider = new DaoAuthenticationProvider();
+        daoProvider.setUserDetailsService(userService);
+        daoProvider.setPasswordEncoder(passwordEncoder);
+        if (!cacheEnabled) {
+            return daoProvider;
+        }
+        return new CachingAuthenticationProvider(daoProvider, cacheTtl, cacheMaxSize, meterRegistry);
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http,
+                                           RequestRateLimiter rateLimiter,
+                                           ObjectMapper objectMapper,
+                                           MeterRegistry meterRegistry) throws Exception {
         http.csrf(csrf -> csrf.disable())
                 .cors(cors -> cors.disable())
                 .headers(headers -> headers
@@ -37,10 +67,21 @@ public class SecurityConfig {
                 )
                 .authorizeHttpRequests(authz -> authz
                         .requestMatchers("/h2-console/**").permitAll()
+                        // Streaming responses are re-dispatched once written; the original request was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        // Actuator write operations (such as clearing the product cache) are for admins only
+                        .requestMatchers(HttpMethod.POST, "/actuator/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.DELETE, "/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 // --- ADD THIS LINE TO ENABLE HTTP BASIC AUTH ---
-                .httpBasic(Customizer.withDefaults()); // Enables standard HTTP Basic Authentication filter
+                .httpBasic(Customizer.withDefaults()) // Enables standard HTTP Basic Authentication filter
+                // Bearer tokens from POST /api/v1/auth/token are verified from their signature alone
+                .oauth2ResourceServer(oauth2 -> oauth2
+                        .jwt(jwt -> jwt.jwtAuthenticationConverter(TokenConfig.authenticationConverter())))
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                // After authentication, so the caller is known; before authorization and the handlers
+                .addFilterBefore(new RateLimitFilter(rateLimiter, objectMapper, meterRegistry), AuthorizationFilter.class);
 
         return http.build();
     }
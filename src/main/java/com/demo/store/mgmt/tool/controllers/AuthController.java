@@ -0,0 +1,32 @@
+package com.demo.store.mgmt.tool.controllers;
+
+import com.demo.store.mgmt.tool.dto.TokenResponse;
+import com.demo.store.mgmt.tool.services.TokenService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/auth")
+public class AuthController {
+
+    private final TokenService tokenService;
+
+    public AuthController(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    // Log in once with HTTP Basic, then send "Authorization: Bearer <token>" until it expires
+    @PostMapping("/token")
+    public ResponseEntity<TokenResponse> issueToken(Authentication authentication) {
+        if (authentication instanceof JwtAuthenticationToken) {
+            // Otherwise a token could be renewed forever without the password
+            throw new AccessDeniedException("A token can only be issued for a password login");
+        }
+        return ResponseEntity.ok(tokenService.issue(authentication));
+    }
+}
@@ -0,0 +1,36 @@
+package com.demo.store.mgmt.tool.controllers;
+
+import com.demo.store.mgmt.tool.dto.SnapshotReport;
+import com.demo.store.mgmt.tool.snapshot.CatalogSnapshotService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/v1/products")
+public class CatalogSnapshotController {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotController.class);
+    private final CatalogSnapshotService snapshotService;
+
+    public CatalogSnapshotController(CatalogSnapshotService snapshotService) {
+        this.snapshotService = snapshotService;
+    }
+
+    // Writes a new snapshot file under store.snapshot.directory on the server
+    @PostMapping("/snapshots")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SnapshotReport> exportSnapshot() throws IOException {
+        logger.debug("Exporting catalog snapshot");
+        return new ResponseEntity<>(snapshotService.export(), HttpStatus.CREATED);
+    }
+}
@@ -0,0 +1,66 @@
+package com.demo.store.mgmt.tool.controllers;
+
+import com.demo.store.mgmt.tool.dto.ReservationResponse;
+import com.demo.store.mgmt.tool.dto.StockLevelResponse;
+import com.demo.store.mgmt.tool.dto.StockQuantityRequest;
+import com.demo.store.mgmt.tool.services.InventoryService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/v1/inventory")
+public class InventoryController {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryController.class);
+    private final InventoryService inventoryService;
+
+    public InventoryController(InventoryService inventoryService) {
+        this.inventoryService = inventoryService;
+    }
+
+    @GetMapping("/{productId}")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<StockLevelResponse> getStockLevel(@PathVariable Long productId) {
+        return ResponseEntity.ok(inventoryService.getStockLevel(productId));
+    }
+
+    // Goods received: adds to the units on hand
+    @PostMapping("/{productId}/restock")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StockLevelResponse> restock(@PathVariable Long productId,
+                                                      @Valid @RequestBody StockQuantityRequest request) {
+        logger.debug("Restocking product {} with {} units", productId, request.quantity());
+        return ResponseEntity.ok(inventoryService.restock(productId, request.quantity()));
+    }
+
+    // Checkout: holds units until the reservation is committed, released or expires
+    @PostMapping("/{productId}/reservations")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<ReservationResponse> reserve(@PathVariable Long productId,
+                                                       @Valid @RequestBody StockQuantityRequest request) {
+        return new ResponseEntity<>(inventoryService.reserve(productId, request.quantity()), HttpStatus.CREATED);
+    }
+
+    @PostMapping("/reservations/{reservationId}/commit")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<Void> commit(@PathVariable UUID reservationId) {
+        inventoryService.commit(reservationId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/reservations/{reservationId}")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<Void> release(@PathVariable UUID reservationId) {
+        inventoryService.release(reservationId);
+        return ResponseEntity.noContent().build();
+    }
+}
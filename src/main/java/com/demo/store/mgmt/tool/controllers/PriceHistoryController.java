@@ -0,0 +1,36 @@
+package com.demo.store.mgmt.tool.controllers;
+
+import com.demo.store.mgmt.tool.audit.PriceAuditLog;
+import com.demo.store.mgmt.tool.dto.PriceHistoryEntry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/v1/products")
+public class PriceHistoryController {
+
+    private final PriceAuditLog priceAuditLog;
+
+    public PriceHistoryController(PriceAuditLog priceAuditLog) {
+        this.priceAuditLog = priceAuditLog;
+    }
+
+    // Scans the audit segments; changes from the last few milliseconds may still be queued
+    @GetMapping("/{id}/price-history")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<PriceHistoryEntry>> getPriceHistory(@PathVariable Long id) throws IOException {
+        List<PriceHistoryEntry> history = priceAuditLog.history(id).stream()
+                .map(PriceHistoryEntry::of)
+                .toList();
+        return ResponseEntity.ok(history);
+    }
+}
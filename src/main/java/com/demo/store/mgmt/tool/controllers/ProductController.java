@@ -1,30 +1,62 @@
 package com.demo.store.mgmt.tool.controllers;
 
+import com.demo.store.mgmt.tool.config.BinaryFormatsConfig;
 import com.demo.store.mgmt.tool.dto.AddProductRequest;
+import com.demo.store.mgmt.tool.dto.BulkPriceUpdateResponse;
+import com.demo.store.mgmt.tool.dto.ImportReport;
+import com.demo.store.mgmt.tool.dto.PriceChange;
+import com.demo.store.mgmt.tool.dto.ProductBatchResponse;
+import com.demo.store.mgmt.tool.dto.ProductPage;
 import com.demo.store.mgmt.tool.dto.ProductResponse;
 import com.demo.store.mgmt.tool.dto.UpdatePriceRequest;
 import com.demo.store.mgmt.tool.models.Product;
+import com.demo.store.mgmt.tool.services.CatalogVersion;
+import com.demo.store.mgmt.tool.services.PriceUpdateCoordinator;
+import com.demo.store.mgmt.tool.services.ProductImportService;
 import com.demo.store.mgmt.tool.services.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/v1/products")
 public class ProductController {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final PriceUpdateCoordinator priceUpdateCoordinator;
+    private final CatalogVersion catalogVersion;
+    private final ObjectMapper objectMapper;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService,
+                             ProductImportService productImportService,
+                             PriceUpdateCoordinator priceUpdateCoordinator,
+                             CatalogVersion catalogVersion,
+                             ObjectMapper objectMapper) {
         this.productService = productService;
+        this.productImportService = productImportService;
+        this.priceUpdateCoordinator = priceUpdateCoordinator;
+        this.catalogVersion = catalogVersion;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -34,58 +66,153 @@ public class ProductController {
         return new ResponseEntity<>(savedProduct, HttpStatus.CREATED);
     }
 
+    // Bulk load: the body is read as a stream, one product per CSV line or NDJSON object
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ImportReport> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        ProductImportService.Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(contentType))
+                ? ProductImportService.Format.NDJSON
+                : ProductImportService.Format.CSV;
+        logger.debug("Importing products from {}", format);
+        ImportReport report = productImportService.importProducts(body, format);
+        logger.debug("Import finished: {} imported, {} rejected", report.imported(), report.rejected());
+        return ResponseEntity.ok(report);
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<ProductResponse> findProductById(@PathVariable Long id) {
+    public ResponseEntity<ProductResponse> findProductById(@PathVariable Long id, WebRequest request) {
+        // Revalidation only needs the version, not the product
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<Long> version = productService.findProductVersion(id);
+            if (version.isPresent() && request.checkNotModified(ProductETags.forProduct(id, version.get()))) {
+                return null; // 304 Not Modified has already been set
+            }
+        }
         return productService.findProductById(id)
-                .map(product -> new ProductResponse(product.getId(), product.getName(), product.getPrice()))
-                .map(ResponseEntity::ok)
+                .map(product -> ResponseEntity.ok()
+                        .eTag(ProductETags.forProduct(product.id(), product.version()))
+                        .body(product.toResponse()))
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    @GetMapping
+    // One round trip for a basket: GET /api/v1/products/batch?ids=3,1,7
+    @GetMapping("/batch")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<ProductBatchResponse> findProductsByIds(@RequestParam List<Long> ids) {
+        logger.debug("Fetching {} products by id", ids.size());
+        return ResponseEntity.ok(productService.findProductsByIds(ids));
+    }
+
+    // JSON by default, CBOR or Smile on request (Accept: application/cbor, application/x-jackson-smile)
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatsConfig.APPLICATION_SMILE_VALUE})
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<List<Product>> findAllProducts() {
-        logger.info("Fetching all products");
-        List<Product> products = productService.findAllProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<ProductPage> findAllProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size,
+            WebRequest request) {
+        // Read the version before the data: a write in between only costs the client one extra download
+        String eTag = ProductETags.forCatalog(catalogVersion.current());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        logger.debug("Fetching products page after cursor: {}", cursor);
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT)
+                .body(productService.findProductsPage(cursor, size));
     }
 
-    @GetMapping("/search")
+    // Streams the whole catalog as newline-delimited JSON, rows are written as they are read
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<List<Product>> findProducts(@RequestParam String name) {
-        logger.info("Searching products by name: {}", name);
-        List<Product> products = productService.findProductsByNameContaining(name);
-        return ResponseEntity.ok(products);
+    public ResponseEntity<StreamingResponseBody> streamAllProducts() {
+        logger.debug("Streaming all products");
+        StreamingResponseBody body = out -> productService.streamAllProducts(product -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(product));
+                out.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatsConfig.APPLICATION_SMILE_VALUE})
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<List<ProductResponse>> findProducts(
+            @RequestParam String name,
+            @RequestParam(defaultValue = "50") int limit,
+            WebRequest request) {
+        String eTag = ProductETags.forCatalog(catalogVersion.current());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        logger.debug("Searching products by name: {}", name);
+        List<ProductResponse> products = productService.findProductsByNameContaining(name, limit);
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(products);
+    }
+
+    // Price range with a sort and a limit: ?minPrice=10&maxPrice=50&sort=price&direction=asc&limit=20
+    @GetMapping("/filter")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<List<ProductResponse>> filterProducts(
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "price") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "50") int limit,
+            WebRequest request) {
+        String eTag = ProductETags.forCatalog(catalogVersion.current());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        logger.debug("Filtering products priced {} to {} by {} {}", minPrice, maxPrice, sort, direction);
+        List<ProductResponse> products = productService.findProductsByPrice(minPrice, maxPrice, sort, direction, limit);
+        return ResponseEntity.ok().eTag(eTag).body(products);
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Product> changeProductPrice(
             @PathVariable Long id,
-            @Valid @RequestBody UpdatePriceRequest priceRequest) {
-        logger.info("Updating price for product ID: {} to {}", id, priceRequest.newPrice());
+            @Valid @RequestBody UpdatePriceRequest priceRequest,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        logger.debug("Updating price for product ID: {} to {}", id, priceRequest.newPrice());
 
         // Pass the value from the DTO record to the service
-        Product updatedProduct = productService.changeProductPrice(id, priceRequest.newPrice());
+        Long expectedVersion = ProductETags.expectedVersion(ifMatch, id);
+        Product updatedProduct = priceUpdateCoordinator.changeProductPrice(id, priceRequest.newPrice(), expectedVersion);
 
-        logger.info("Price updated successfully for product ID: {}", id);
-        return ResponseEntity.ok(updatedProduct);
+        logger.debug("Price updated successfully for product ID: {}", id);
+        return ResponseEntity.ok()
+                .eTag(ProductETags.forProduct(updatedProduct.getId(), updatedProduct.getVersion()))
+                .body(updatedProduct);
+    }
+
+    @PutMapping("/prices")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkPriceUpdateResponse> changeProductPrices(@RequestBody List<PriceChange> changes) {
+        logger.debug("Bulk updating {} product prices", changes.size());
+        return ResponseEntity.ok(productService.changeProductPrices(changes));
     }
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
-        logger.info("Deleting product with ID: {}", id);
+        logger.debug("Deleting product with ID: {}", id);
         productService.deleteProduct(id);
-        logger.info("Product deleted successfully with ID: {}", id);
+        logger.debug("Product deleted successfully with ID: {}", id);
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/count")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<Long> getProductCount() {
-        logger.info("Fetching product count");
+        logger.debug("Fetching product count");
         long count = productService.countProducts();
         return ResponseEntity.ok(count);
     }
@@ -0,0 +1,38 @@
+package com.demo.store.mgmt.tool.controllers;
+
+import com.demo.store.mgmt.tool.exception.ProductVersionMismatchException;
+
+// Strong entity tags "<id>-<version>" for one product, which If-Match compares byte for byte.
+// Lists get a weak W/"catalog-<version>": the same catalog is sent as JSON, CBOR or Smile and
+// possibly gzipped, and Tomcat won't compress a response that carries a strong tag.
+final class ProductETags {
+
+    private ProductETags() {
+    }
+
+    static String forProduct(Long id, Long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    static String forCatalog(String catalogVersion) {
+        return "W/\"catalog-" + catalogVersion + "\"";
+    }
+
+    // Returns the version an If-Match header pins the product to, or null if any version is acceptable
+    static Long expectedVersion(String ifMatch, Long id) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        String prefix = "\"" + id + "-";
+        // If-Match uses strong comparison, so weak tags (W/"...") and other products' tags never match
+        if (!tag.startsWith(prefix) || !tag.endsWith("\"") || tag.length() <= prefix.length() + 1) {
+            throw new ProductVersionMismatchException(id);
+        }
+        try {
+            return Long.parseLong(tag.substring(prefix.length(), tag.length() - 1));
+        } catch (NumberFormatException ex) {
+            throw new ProductVersionMismatchException(id);
+        }
+    }
+}
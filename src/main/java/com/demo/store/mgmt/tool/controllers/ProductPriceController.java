@@ -0,0 +1,88 @@
+package com.demo.store.mgmt.tool.controllers;
+
+import com.demo.store.mgmt.tool.cache.PriceBook;
+import com.demo.store.mgmt.tool.exception.ProductNotFoundException;
+import com.demo.store.mgmt.tool.services.ProductService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/v1/products")
+public class ProductPriceController {
+
+    private static final byte[] ID_PREFIX = "{\"id\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PRICE_PREFIX = ",\"price\":".getBytes(StandardCharsets.US_ASCII);
+    // Room for the prefixes, a 19-digit id, a 10-digit price with its point, and the closing brace
+    private static final ThreadLocal<byte[]> BUFFERS = ThreadLocal.withInitial(() -> new byte[64]);
+
+    private final PriceBook priceBook;
+    private final ProductService productService;
+
+    public ProductPriceController(PriceBook priceBook, ProductService productService) {
+        this.priceBook = priceBook;
+        this.productService = productService;
+    }
+
+    // Just the price: {"id":1,"price":12.50}, written straight from the price book without
+    // building a DTO or a BigDecimal
+    @GetMapping(value = "/{id}/price", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public void getPrice(@PathVariable long id, HttpServletResponse response) throws IOException {
+        long cents = priceBook.priceCents(id);
+        if (cents == PriceBook.NO_PRICE && !priceBook.isReady()) {
+            // Still loading at startup
+            cents = productService.findProductById(id)
+                    .map(product -> PriceBook.toCents(product.price()))
+                    .orElse(PriceBook.NO_PRICE);
+        }
+        if (cents == PriceBook.NO_PRICE) {
+            throw new ProductNotFoundException(id);
+        }
+        byte[] buffer = BUFFERS.get();
+        int length = write(buffer, id, cents);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(length);
+        response.getOutputStream().write(buffer, 0, length);
+    }
+
+    static int write(byte[] buffer, long id, long cents) {
+        int position = copy(ID_PREFIX, buffer, 0);
+        position = writeDigits(buffer, position, id);
+        position = copy(PRICE_PREFIX, buffer, position);
+        position = writeDigits(buffer, position, cents / 100);
+        long fraction = cents % 100;
+        buffer[position++] = '.';
+        buffer[position++] = (byte) ('0' + fraction / 10);
+        buffer[position++] = (byte) ('0' + fraction % 10);
+        buffer[position++] = '}';
+        return position;
+    }
+
+    private static int copy(byte[] source, byte[] target, int position) {
+        System.arraycopy(source, 0, target, position, source.length);
+        return position + source.length;
+    }
+
+    // Non-negative values only: ids and prices are both positive
+    private static int writeDigits(byte[] buffer, int position, long value) {
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return position + digits;
+    }
+}
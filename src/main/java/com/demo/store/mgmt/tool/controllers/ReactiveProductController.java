@@ -0,0 +1,246 @@
+package com.demo.store.mgmt.tool.controllers;
+
+import com.demo.store.mgmt.tool.audit.PriceAuditLog;
+import com.demo.store.mgmt.tool.cache.PriceBook;
+import com.demo.store.mgmt.tool.dto.AddProductRequest;
+import com.demo.store.mgmt.tool.dto.BulkPriceUpdateResponse;
+import com.demo.store.mgmt.tool.dto.ImportReport;
+import com.demo.store.mgmt.tool.dto.PriceChange;
+import com.demo.store.mgmt.tool.dto.PriceHistoryEntry;
+import com.demo.store.mgmt.tool.dto.ProductBatchResponse;
+import com.demo.store.mgmt.tool.dto.ProductPage;
+import com.demo.store.mgmt.tool.dto.ProductResponse;
+import com.demo.store.mgmt.tool.dto.UpdatePriceRequest;
+import com.demo.store.mgmt.tool.exception.ProductNotFoundException;
+import com.demo.store.mgmt.tool.models.Product;
+import com.demo.store.mgmt.tool.services.CatalogVersion;
+import com.demo.store.mgmt.tool.services.ProductImportService;
+import com.demo.store.mgmt.tool.services.ProductService;
+import com.demo.store.mgmt.tool.services.ReactiveProductService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+// The /api/v1/products contract of ProductController and friends for the reactive profile.
+// Single-product reads and writes, paging, streaming, search and filters run on R2DBC or in
+// memory, never on JDBC. (r2dbc-h2 itself executes on the subscribing thread, so H2 work still
+// happens on the event loop.) Lists and searches are Flux bodies, written as JSON arrays or, with
+// Accept: application/x-ndjson, one object per line as rows arrive.
+//
+// ETags work as on the servlet side. Lists and searches return the headers first and the body as a
+// publisher: the result handler answers If-None-Match with a 304 before it subscribes to the body,
+// so a revalidated list or search never reaches the database. Handlers return Mono or Flux
+// because reactive method security only intercepts publishers.
+//
+// Import, bulk repricing and price history reuse the blocking services on the bounded elastic
+// scheduler. The SSE change stream and binary formats are servlet-only.
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/v1/products")
+public class ReactiveProductController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveProductController.class);
+    private final ReactiveProductService productService;
+    private final ProductService blockingProductService;
+    private final ProductImportService productImportService;
+    private final CatalogVersion catalogVersion;
+    private final PriceBook priceBook;
+    private final PriceAuditLog priceAuditLog;
+
+    public ReactiveProductController(ReactiveProductService productService,
+                                     ProductService blockingProductService,
+                                     ProductImportService productImportService,
+                                     CatalogVersion catalogVersion,
+                                     PriceBook priceBook,
+                                     PriceAuditLog priceAuditLog) {
+        this.productService = productService;
+        this.blockingProductService = blockingProductService;
+        this.productImportService = productImportService;
+        this.catalogVersion = catalogVersion;
+        this.priceBook = priceBook;
+        this.priceAuditLog = priceAuditLog;
+    }
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<ResponseEntity<Product>> addProduct(@RequestBody @Valid AddProductRequest productRequest) {
+        return productService.addProduct(productRequest)
+                .map(savedProduct -> new ResponseEntity<>(savedProduct, HttpStatus.CREATED));
+    }
+
+    // The importer reads an InputStream over JDBC, so the body is collected first
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<ResponseEntity<ImportReport>> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestBody Flux<DataBuffer> body) {
+        ProductImportService.Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(contentType))
+                ? ProductImportService.Format.NDJSON
+                : ProductImportService.Format.CSV;
+        logger.debug("Importing products from {}", format);
+        return DataBufferUtils.join(body)
+                .publishOn(Schedulers.boundedElastic())
+                .map(buffer -> {
+                    try (InputStream in = buffer.asInputStream(true)) {
+                        return productImportService.importProducts(in, format);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                })
+                .doOnNext(report -> logger.debug("Import finished: {} imported, {} rejected",
+                        report.imported(), report.rejected()))
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasRole('USER')")
+    public Mono<ResponseEntity<ProductResponse>> findProductById(@PathVariable Long id) {
+        return productService.findProductById(id)
+                .map(product -> ResponseEntity.ok()
+                        .eTag(ProductETags.forProduct(product.id(), product.version()))
+                        .body(product.toResponse()))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/batch")
+    @PreAuthorize("hasRole('USER')")
+    public Mono<ResponseEntity<ProductBatchResponse>> findProductsByIds(@RequestParam List<Long> ids) {
+        logger.debug("Fetching {} products by id", ids.size());
+        return productService.findProductsByIds(ids).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public Mono<ResponseEntity<Mono<ProductPage>>> findAllProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        logger.debug("Fetching products page after cursor: {}", cursor);
+        // Read the version before the data: a write in between only costs the client one extra download
+        return Mono.fromSupplier(() -> ResponseEntity.ok()
+                .eTag(ProductETags.forCatalog(catalogVersion.current()))
+                .body(productService.findProductsPage(cursor, size)));
+    }
+
+    // Rows go out as the database produces them, at the pace the client reads them
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public Flux<ProductResponse> streamAllProducts() {
+        logger.debug("Streaming all products");
+        return productService.streamAllProducts();
+    }
+
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasRole('USER')")
+    public Mono<ResponseEntity<Flux<ProductResponse>>> findProducts(
+            @RequestParam String name,
+            @RequestParam(defaultValue = "50") int limit) {
+        logger.debug("Searching products by name: {}", name);
+        return Mono.fromSupplier(() -> ResponseEntity.ok()
+                .eTag(ProductETags.forCatalog(catalogVersion.current()))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(productService.findProductsByNameContaining(name, limit)));
+    }
+
+    @GetMapping(value = "/filter", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasRole('USER')")
+    public Mono<ResponseEntity<Flux<ProductResponse>>> filterProducts(
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "price") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "50") int limit) {
+        logger.debug("Filtering products priced {} to {} by {} {}", minPrice, maxPrice, sort, direction);
+        return Mono.fromSupplier(() -> ResponseEntity.ok()
+                .eTag(ProductETags.forCatalog(catalogVersion.current()))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(productService.findProductsByPrice(minPrice, maxPrice, sort, direction, limit)));
+    }
+
+    @PutMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<ResponseEntity<Product>> changeProductPrice(
+            @PathVariable Long id,
+            @Valid @RequestBody UpdatePriceRequest priceRequest,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        logger.debug("Updating price for product ID: {} to {}", id, priceRequest.newPrice());
+        Long expectedVersion = ProductETags.expectedVersion(ifMatch, id);
+        return productService.changeProductPrice(id, priceRequest.newPrice(), expectedVersion)
+                .map(updatedProduct -> ResponseEntity.ok()
+                        .eTag(ProductETags.forProduct(updatedProduct.getId(), updatedProduct.getVersion()))
+                        .body(updatedProduct));
+    }
+
+    // One JDBC batch, see ProductService.changeProductPrices
+    @PutMapping("/prices")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<ResponseEntity<BulkPriceUpdateResponse>> changeProductPrices(@RequestBody List<PriceChange> changes) {
+        logger.debug("Bulk updating {} product prices", changes.size());
+        return Mono.fromCallable(() -> blockingProductService.changeProductPrices(changes))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<ResponseEntity<Void>> deleteProduct(@PathVariable Long id) {
+        logger.debug("Deleting product with ID: {}", id);
+        return productService.deleteProduct(id)
+                .then(Mono.fromSupplier(() -> ResponseEntity.noContent().<Void>build()));
+    }
+
+    @GetMapping("/count")
+    @PreAuthorize("hasRole('USER')")
+    public Mono<ResponseEntity<Long>> getProductCount() {
+        logger.debug("Fetching product count");
+        return productService.countProducts().map(ResponseEntity::ok);
+    }
+
+    // {"id":1,"price":12.50} from the price book, same bytes as ProductPriceController writes
+    @GetMapping(value = "/{id}/price", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public Mono<ResponseEntity<byte[]>> getPrice(@PathVariable long id) {
+        long cents = priceBook.priceCents(id);
+        Mono<Long> price = cents != PriceBook.NO_PRICE || priceBook.isReady()
+                ? Mono.just(cents)
+                // Still loading at startup
+                : productService.findProductById(id)
+                        .map(product -> PriceBook.toCents(product.price()))
+                        .defaultIfEmpty(PriceBook.NO_PRICE);
+        return price.map(found -> {
+            if (found == PriceBook.NO_PRICE) {
+                throw new ProductNotFoundException(id);
+            }
+            byte[] buffer = new byte[64];
+            int length = ProductPriceController.write(buffer, id, found);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(Arrays.copyOf(buffer, length));
+        });
+    }
+
+    // Scans the audit segments, which is file I/O
+    @GetMapping("/{id}/price-history")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<ResponseEntity<List<PriceHistoryEntry>>> getPriceHistory(@PathVariable Long id) {
+        return Mono.fromCallable(() -> priceAuditLog.history(id))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(records -> ResponseEntity.ok(records.stream().map(PriceHistoryEntry::of).toList()));
+    }
+}
@@ -0,0 +1,76 @@
+package com.demo.store.mgmt.tool.controllers;
+
+import com.demo.store.mgmt.tool.dto.EffectivePriceResponse;
+import com.demo.store.mgmt.tool.dto.SchedulePriceRequest;
+import com.demo.store.mgmt.tool.dto.ScheduledPriceChangeRequest;
+import com.demo.store.mgmt.tool.dto.ScheduledPriceResponse;
+import com.demo.store.mgmt.tool.services.PriceScheduler;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+// Future price changes (promotions): scheduled here, applied by PriceScheduler when due
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/v1/products")
+public class ScheduledPriceController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledPriceController.class);
+    private final PriceScheduler priceScheduler;
+
+    public ScheduledPriceController(PriceScheduler priceScheduler) {
+        this.priceScheduler = priceScheduler;
+    }
+
+    @PostMapping("/{id}/scheduled-prices")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ScheduledPriceResponse> schedulePrice(@PathVariable Long id,
+                                                                @Valid @RequestBody SchedulePriceRequest request) {
+        logger.debug("Scheduling price {} for product {} at {}", request.newPrice(), id, request.effectiveAt());
+        return new ResponseEntity<>(priceScheduler.schedule(id, request), HttpStatus.CREATED);
+    }
+
+    // A whole promotion in one request; rejected as a whole if any entry is invalid
+    @PostMapping("/scheduled-prices")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<ScheduledPriceResponse>> schedulePrices(
+            @RequestBody List<ScheduledPriceChangeRequest> requests) {
+        logger.debug("Scheduling {} price changes", requests.size());
+        return new ResponseEntity<>(priceScheduler.scheduleAll(requests), HttpStatus.CREATED);
+    }
+
+    // Pending and resolved changes of one product, by effective time
+    @GetMapping("/{id}/scheduled-prices")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<ScheduledPriceResponse>> getScheduledPrices(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(priceScheduler.findByProductId(id, limit));
+    }
+
+    @DeleteMapping("/scheduled-prices/{scheduleId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> cancelScheduledPrice(@PathVariable Long scheduleId) {
+        logger.debug("Cancelling scheduled price change {}", scheduleId);
+        priceScheduler.cancel(scheduleId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // The price at a point in time: ?at=2024-12-01T00:00:00Z, now if omitted
+    @GetMapping("/{id}/effective-price")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<EffectivePriceResponse> getEffectivePrice(
+            @PathVariable Long id,
+            @RequestParam(required = false) Instant at) throws IOException {
+        return ResponseEntity.ok(priceScheduler.effectivePrice(id, at != null ? at : Instant.now()));
+    }
+}
@@ -1,12 +1,15 @@
 package com.demo.store.mgmt.tool.dto;
 
+import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 
 import java.math.BigDecimal;
 
 // This record is used when a client wants to add a new product
 public record AddProductRequest(
         @NotBlank String name,
-        @Min(0) BigDecimal price
+        // The upper bound is the largest NUMERIC(10, 2) value, ProductService.MAX_PRICE
+        @NotNull @Min(0) @DecimalMax("99999999.99") BigDecimal price
 ) {}
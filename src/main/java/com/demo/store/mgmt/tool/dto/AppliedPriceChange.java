@@ -0,0 +1,5 @@
+package com.demo.store.mgmt.tool.dto;
+
+import java.math.BigDecimal;
+
+public record AppliedPriceChange(Long id, BigDecimal price, Long version) {}
@@ -0,0 +1,5 @@
+package com.demo.store.mgmt.tool.dto;
+
+import java.util.List;
+
+public record BulkPriceUpdateResponse(List<AppliedPriceChange> applied, List<RejectedPriceChange> rejected) {}
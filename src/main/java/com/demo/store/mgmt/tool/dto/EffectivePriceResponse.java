@@ -0,0 +1,7 @@
+package com.demo.store.mgmt.tool.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// scheduleId is set when the price comes from a change that is still pending
+public record EffectivePriceResponse(Long productId, BigDecimal price, Instant at, Long scheduleId) {}
@@ -0,0 +1,6 @@
+package com.demo.store.mgmt.tool.dto;
+
+import java.util.List;
+
+// "errors" is capped, "rejected" always counts every row that was not imported
+public record ImportReport(long rowsRead, long imported, long rejected, List<ImportRowError> errors) {}
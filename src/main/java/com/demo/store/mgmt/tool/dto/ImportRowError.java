@@ -0,0 +1,3 @@
+package com.demo.store.mgmt.tool.dto;
+
+public record ImportRowError(long line, String message) {}
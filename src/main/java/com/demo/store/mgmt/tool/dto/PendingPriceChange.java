@@ -0,0 +1,6 @@
+package com.demo.store.mgmt.tool.dto;
+
+import java.time.Instant;
+
+// What the price scheduler keeps in memory per pending change; the rest is read when it is due
+public record PendingPriceChange(Long id, Instant effectiveAt) {}
@@ -0,0 +1,6 @@
+package com.demo.store.mgmt.tool.dto;
+
+import java.math.BigDecimal;
+
+// One row of a bulk repricing; without an expectedVersion the version read at the start of the batch is used
+public record PriceChange(Long id, BigDecimal newPrice, Long expectedVersion) {}
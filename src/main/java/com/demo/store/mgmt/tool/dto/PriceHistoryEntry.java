@@ -0,0 +1,15 @@
+package com.demo.store.mgmt.tool.dto;
+
+import com.demo.store.mgmt.tool.audit.PriceAuditRecord;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record PriceHistoryEntry(Long version, BigDecimal oldPrice, BigDecimal newPrice, String changedBy,
+                                Instant changedAt) {
+
+    public static PriceHistoryEntry of(PriceAuditRecord record) {
+        return new PriceHistoryEntry(record.version(), record.oldPrice(), record.newPrice(), record.username(),
+                Instant.ofEpochMilli(record.timestampMillis()));
+    }
+}
@@ -0,0 +1,6 @@
+package com.demo.store.mgmt.tool.dto;
+
+import java.util.List;
+
+// Products in the order they were asked for; ids that don't exist are listed in "missing"
+public record ProductBatchResponse(List<ProductResponse> products, List<Long> missing) {}
@@ -0,0 +1,6 @@
+package com.demo.store.mgmt.tool.dto;
+
+import java.util.List;
+
+// One keyset page of the catalog; "next" is an opaque cursor, null on the last page
+public record ProductPage(List<ProductResponse> items, String next) {}
@@ -0,0 +1,17 @@
+package com.demo.store.mgmt.tool.dto;
+
+import com.demo.store.mgmt.tool.models.Product;
+
+import java.math.BigDecimal;
+
+// Immutable copy of a product row, including the version it was read at
+public record ProductSnapshot(Long id, String name, BigDecimal price, Long version) {
+
+    public static ProductSnapshot of(Product product) {
+        return new ProductSnapshot(product.getId(), product.getName(), product.getPrice(), product.getVersion());
+    }
+
+    public ProductResponse toResponse() {
+        return new ProductResponse(id, name, price);
+    }
+}
@@ -0,0 +1,6 @@
+package com.demo.store.mgmt.tool.dto;
+
+public record RejectedPriceChange(Long id, Reason reason, String message) {
+
+    public enum Reason { NOT_FOUND, VERSION_CONFLICT, INVALID_PRICE }
+}
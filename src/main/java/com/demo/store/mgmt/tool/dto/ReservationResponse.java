@@ -0,0 +1,7 @@
+package com.demo.store.mgmt.tool.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Commit or release it before expiresAt; after that the units go back on sale
+public record ReservationResponse(UUID reservationId, Long productId, int quantity, Instant expiresAt) {}
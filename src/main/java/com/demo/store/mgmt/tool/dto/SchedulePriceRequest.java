@@ -0,0 +1,13 @@
+package com.demo.store.mgmt.tool.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// A price for one product from effectiveAt on (ISO-8601, e.g. 2024-12-01T00:00:00Z)
+public record SchedulePriceRequest(
+        @NotNull @Min(0) BigDecimal newPrice,
+        @NotNull Instant effectiveAt
+) {}
@@ -0,0 +1,7 @@
+package com.demo.store.mgmt.tool.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// One entry of a bulk schedule; entries are checked by the service so the whole list can be rejected at once
+public record ScheduledPriceChangeRequest(Long productId, BigDecimal newPrice, Instant effectiveAt) {}
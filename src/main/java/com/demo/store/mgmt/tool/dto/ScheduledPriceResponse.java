@@ -0,0 +1,15 @@
+package com.demo.store.mgmt.tool.dto;
+
+import com.demo.store.mgmt.tool.models.ScheduledPriceChange;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record ScheduledPriceResponse(Long id, Long productId, BigDecimal newPrice, Instant effectiveAt,
+                                     ScheduledPriceChange.Status status, Long appliedVersion) {
+
+    public static ScheduledPriceResponse of(ScheduledPriceChange change) {
+        return new ScheduledPriceResponse(change.getId(), change.getProductId(), change.getNewPrice(),
+                change.getEffectiveAt(), change.getStatus(), change.getAppliedVersion());
+    }
+}
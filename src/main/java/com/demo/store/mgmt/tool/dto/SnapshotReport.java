@@ -0,0 +1,4 @@
+package com.demo.store.mgmt.tool.dto;
+
+// "file" is what store.snapshot.restore-from takes to load the snapshot on the next start
+public record SnapshotReport(String file, long products, long bytes, long durationMillis) {}
@@ -0,0 +1,3 @@
+package com.demo.store.mgmt.tool.dto;
+
+public record StockLevelResponse(Long productId, long onHand, long reserved, long available) {}
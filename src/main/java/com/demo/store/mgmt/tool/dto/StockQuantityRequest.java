@@ -0,0 +1,8 @@
+package com.demo.store.mgmt.tool.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public record StockQuantityRequest(
+        @NotNull @Min(1) Integer quantity
+) {}
@@ -0,0 +1,4 @@
+package com.demo.store.mgmt.tool.dto;
+
+// One write-behind row: the new on-hand count, and the version the row had when it was last read or written
+public record StockWrite(Long productId, long onHand, long expectedVersion) {}
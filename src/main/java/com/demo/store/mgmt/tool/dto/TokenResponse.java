@@ -0,0 +1,4 @@
+package com.demo.store.mgmt.tool.dto;
+
+// expiresIn is in seconds, as in an OAuth2 token response
+public record TokenResponse(String accessToken, String tokenType, long expiresIn) {}
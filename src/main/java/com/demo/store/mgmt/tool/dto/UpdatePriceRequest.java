@@ -1,11 +1,12 @@
 package com.demo.store.mgmt.tool.dto;
 
+import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
 import java.math.BigDecimal;
 
 public record UpdatePriceRequest(
-        @NotNull @Min(0) BigDecimal newPrice
+        @NotNull @Min(0) @DecimalMax("99999999.99") BigDecimal newPrice
 ) {}
 
@@ -0,0 +1,39 @@
+package com.demo.store.mgmt.tool.events;
+
+import com.demo.store.mgmt.tool.models.Product;
+
+import java.math.BigDecimal;
+
+// Published by the service layer for every product mutation. Listeners use
+// @TransactionalEventListener, so they only ever see changes that were committed. The reactive
+// profile writes through R2DBC without a Spring transaction and publishes after the statement has
+// committed, which is why the listeners also set fallbackExecution.
+// previousPrice is only set for price changes, and only when the old price is known.
+public record ProductChangedEvent(Type type, Long id, String name, BigDecimal price, Long version,
+                                  BigDecimal previousPrice) {
+
+    public enum Type { CREATED, PRICE_CHANGED, DELETED }
+
+    public static ProductChangedEvent created(Product product) {
+        return new ProductChangedEvent(Type.CREATED, product.getId(), product.getName(), product.getPrice(),
+                product.getVersion(), null);
+    }
+
+    public static ProductChangedEvent priceChanged(Product product, BigDecimal previousPrice) {
+        return priceChanged(product.getId(), product.getName(), product.getPrice(), product.getVersion(), previousPrice);
+    }
+
+    public static ProductChangedEvent priceChanged(Long id, String name, BigDecimal price, Long version) {
+        return priceChanged(id, name, price, version, null);
+    }
+
+    public static ProductChangedEvent priceChanged(Long id, String name, BigDecimal price, Long version,
+                                                   BigDecimal previousPrice) {
+        return new ProductChangedEvent(Type.PRICE_CHANGED, id, name, price, version, previousPrice);
+    }
+
+    public static ProductChangedEvent deleted(Product product) {
+        return new ProductChangedEvent(Type.DELETED, product.getId(), product.getName(), null, product.getVersion(),
+                null);
+    }
+}
@@ -0,0 +1,287 @@
+package com.demo.store.mgmt.tool.events;
+
+import com.demo.store.mgmt.tool.exception.TooManySubscribersException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Server-sent events for committed product changes.
+//
+// Every committed change gets the next sequence number and goes into a fixed-size ring buffer.
+// Committing threads only append and signal; sending happens on a subscriber's own sender task,
+// so a slow client can never hold up a write. A client that falls further behind than the ring
+// holds is disconnected. On reconnect with Last-Event-ID it gets everything it missed if that is
+// still buffered, or a "reset" event telling it to reload the catalog and carry on from there.
+//
+// Sequence numbers follow the order in which commit listeners run, which for two concurrent
+// commits need not be the commit order. So that a client applying events in sequence order never
+// goes back to an older state, an event older than the last one sent for the same product is
+// dropped, as is anything after a delete. Only products in the recent window are tracked; an
+// event late enough to fall out of it is also too late to be resumed from.
+@Component
+public class ProductEventStream {
+    private static final Logger logger = LoggerFactory.getLogger(ProductEventStream.class);
+
+    private static final int SEND_BATCH = 256;
+
+    // Event ids are "<epoch>-<sequence>", so an id from before a restart is recognised as stale
+    private final long epoch = System.currentTimeMillis();
+    private final SequencedProductEvent[] ring;
+    private final int maxSubscribers;
+    private final long emitterTimeoutMillis;
+    private final Map<Subscriber, Boolean> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeats;
+
+    private static final long DELETED = Long.MAX_VALUE;
+
+    // Guarded by this
+    private long lastSequence;
+    private final Map<Long, Long> lastVersionById;
+
+    public ProductEventStream(@Value("${store.events.buffer-size:10000}") int bufferSize,
+                              @Value("${store.events.max-subscribers:1000}") int maxSubscribers,
+                              @Value("${store.events.emitter-timeout:30m}") Duration emitterTimeout,
+                              @Value("${store.events.heartbeat-interval:15s}") Duration heartbeatInterval) {
+        this.ring = new SequencedProductEvent[bufferSize];
+        this.lastVersionById = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > bufferSize;
+            }
+        };
+        this.maxSubscribers = maxSubscribers;
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "product-events-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "product-events-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = heartbeatInterval.toMillis();
+        heartbeats.scheduleAtFixedRate(this::heartbeat, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        long sequence = append(event);
+        if (sequence < 0) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers.keySet()) {
+            if (sequence - subscriber.cursor > ring.length) {
+                // Its sender is stuck on a slow connection; cut it loose rather than buffer more
+                subscriber.close();
+            } else {
+                subscriber.signal();
+            }
+        }
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new TooManySubscribersException(maxSubscribers);
+        }
+        SseEmitter emitter = createEmitter(emitterTimeoutMillis);
+        long resumeFrom = resumePoint(lastEventId);
+        Subscriber subscriber = new Subscriber(emitter, resumeFrom < 0 ? latestSequence() : resumeFrom, resumeFrom < 0);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscribers.put(subscriber, Boolean.TRUE);
+        subscriber.signal();
+        return emitter;
+    }
+
+    // The new event's sequence, or -1 if it was dropped as older than what was already sent
+    synchronized long append(ProductChangedEvent event) {
+        if (event.version() != null) {
+            Long last = lastVersionById.get(event.id());
+            if (last != null && event.version() < last) {
+                return -1;
+            }
+            lastVersionById.put(event.id(),
+                    event.type() == ProductChangedEvent.Type.DELETED ? DELETED : event.version());
+        }
+        long sequence = ++lastSequence;
+        ring[(int) (sequence % ring.length)] = SequencedProductEvent.of(sequence, event);
+        return sequence;
+    }
+
+    // Overridden by tests to stand in for a client that stopped reading
+    SseEmitter createEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    synchronized long latestSequence() {
+        return lastSequence;
+    }
+
+    // Events after the given sequence, oldest first, or null when some of them were already overwritten
+    synchronized List<SequencedProductEvent> readAfter(long sequence, int max) {
+        if (sequence < lastSequence - ring.length) {
+            return null;
+        }
+        int count = (int) Math.max(0, Math.min(max, lastSequence - sequence));
+        List<SequencedProductEvent> events = new ArrayList<>(count);
+        for (long next = sequence + 1; next <= sequence + count; next++) {
+            events.add(ring[(int) (next % ring.length)]);
+        }
+        return events;
+    }
+
+    // The sequence to resume after, or -1 when the client has to start over with a reset
+    long resumePoint(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return latestSequence();
+        }
+        int separator = lastEventId.indexOf('-');
+        try {
+            long idEpoch = Long.parseLong(lastEventId.substring(0, Math.max(separator, 0)));
+            long sequence = Long.parseLong(lastEventId.substring(separator + 1));
+            if (idEpoch != epoch || sequence < 0 || sequence > latestSequence() || readAfter(sequence, 0) == null) {
+                return -1;
+            }
+            return sequence;
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers.keySet()) {
+            subscriber.heartbeatDue = true;
+            subscriber.signal();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        subscribers.keySet().forEach(Subscriber::close);
+        senders.shutdownNow();
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile long cursor;
+        private volatile boolean resetDue;
+        private volatile boolean heartbeatDue;
+
+        Subscriber(SseEmitter emitter, long cursor, boolean resetDue) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+            this.resetDue = resetDue;
+        }
+
+        void signal() {
+            if (!closed.get() && scheduled.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        // At most one drain per subscriber runs at a time, which keeps its events in order
+        private void drain() {
+            try {
+                if (resetDue) {
+                    resetDue = false;
+                    sendReset();
+                }
+                List<SequencedProductEvent> events;
+                while (!closed.get() && (events = readAfter(cursor, SEND_BATCH)) != null && !events.isEmpty()) {
+                    for (SequencedProductEvent event : events) {
+                        emitter.send(SseEmitter.event()
+                                .id(eventId(event.sequence()))
+                                .name(event.type().name())
+                                .data(event, MediaType.APPLICATION_JSON));
+                        cursor = event.sequence();
+                    }
+                    heartbeatDue = false;
+                }
+                if (!closed.get() && readAfter(cursor, 0) == null) {
+                    // Overtaken by the ring while sending; the client reconnects and gets a reset
+                    close();
+                } else if (heartbeatDue) {
+                    heartbeatDue = false;
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // Client went away or the emitter already completed
+                close();
+            } finally {
+                scheduled.set(false);
+            }
+            // A change may have been appended after our last read but before scheduled was cleared
+            if (!closed.get() && latestSequence() > cursor) {
+                signal();
+            }
+        }
+
+        private void sendReset() throws IOException {
+            long latest = latestSequence();
+            cursor = latest;
+            emitter.send(SseEmitter.event()
+                    .id(eventId(latest))
+                    .name("reset")
+                    .data(Map.of("sequence", latest), MediaType.APPLICATION_JSON));
+        }
+
+        // Called from committing threads too, so the emitter is completed on a sender thread:
+        // complete() and send() lock the emitter, and a send() to a client that stopped reading
+        // holds that lock until the write times out
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                subscribers.remove(this);
+                try {
+                    senders.execute(this::complete);
+                } catch (RejectedExecutionException ex) {
+                    // Shutting down
+                    complete();
+                }
+            }
+        }
+
+        private void complete() {
+            try {
+                emitter.complete();
+            } catch (RuntimeException ex) {
+                logger.debug("Could not complete change stream emitter: {}", ex.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.demo.store.mgmt.tool.events;
+
+import java.math.BigDecimal;
+
+// What change-stream subscribers receive; sequence numbers are gap-free within one server run
+public record SequencedProductEvent(long sequence, ProductChangedEvent.Type type, Long id, String name,
+                                    BigDecimal price, Long version, BigDecimal previousPrice) {
+
+    static SequencedProductEvent of(long sequence, ProductChangedEvent event) {
+        return new SequencedProductEvent(sequence, event.type(), event.id(), event.name(), event.price(),
+                event.version(), event.previousPrice());
+    }
+}
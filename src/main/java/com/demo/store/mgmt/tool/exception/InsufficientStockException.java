@@ -0,0 +1,7 @@
+package com.demo.store.mgmt.tool.exception;
+
+public class InsufficientStockException extends RuntimeException {
+    public InsufficientStockException(Long productId, int requested, long available) {
+        super("Only " + available + " units of product " + productId + " available, " + requested + " requested");
+    }
+}
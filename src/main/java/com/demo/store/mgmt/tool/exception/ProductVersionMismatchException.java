@@ -0,0 +1,7 @@
+package com.demo.store.mgmt.tool.exception;
+
+public class ProductVersionMismatchException extends RuntimeException {
+    public ProductVersionMismatchException(Long id) {
+        super("Product " + id + " has been modified since the version given in If-Match");
+    }
+}
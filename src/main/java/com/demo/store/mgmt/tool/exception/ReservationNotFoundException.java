@@ -0,0 +1,10 @@
+package com.demo.store.mgmt.tool.exception;
+
+import java.util.UUID;
+
+// Unknown, already committed or released, or expired
+public class ReservationNotFoundException extends RuntimeException {
+    public ReservationNotFoundException(UUID reservationId) {
+        super("Reservation not found or no longer active: " + reservationId);
+    }
+}
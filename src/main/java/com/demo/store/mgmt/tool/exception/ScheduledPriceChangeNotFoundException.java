@@ -0,0 +1,8 @@
+package com.demo.store.mgmt.tool.exception;
+
+// Unknown, or already applied, rejected or cancelled
+public class ScheduledPriceChangeNotFoundException extends RuntimeException {
+    public ScheduledPriceChangeNotFoundException(Long scheduleId) {
+        super("Scheduled price change not found or no longer pending: " + scheduleId);
+    }
+}
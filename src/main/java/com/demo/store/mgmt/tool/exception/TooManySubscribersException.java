@@ -0,0 +1,7 @@
+package com.demo.store.mgmt.tool.exception;
+
+public class TooManySubscribersException extends RuntimeException {
+    public TooManySubscribersException(int limit) {
+        super("The change stream already has the maximum of " + limit + " subscribers");
+    }
+}
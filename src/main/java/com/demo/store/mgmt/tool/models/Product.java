@@ -9,14 +9,21 @@ import lombok.Setter;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "products")
+// The unique constraint doubles as the index behind lookups by name; (price, id) serves price
+// ranges and returns them already ordered by price, with id as the tie-breaker
+@Table(name = "products",
+        uniqueConstraints = @UniqueConstraint(name = "uk_products_name", columnNames = "name"),
+        indexes = @Index(name = "idx_products_price", columnList = "price, id"))
 @Getter // Use specific getters rather than @Data
 @Setter // Use specific setters
 @NoArgsConstructor // The essential no-arg constructor for JPA
 @AllArgsConstructor // A handy constructor for creating full objects
 public class Product {
+    // IDENTITY would force Hibernate to insert row by row; a pooled sequence hands out
+    // ids in blocks of 50 so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
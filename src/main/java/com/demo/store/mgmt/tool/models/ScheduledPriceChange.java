@@ -0,0 +1,64 @@
+package com.demo.store.mgmt.tool.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// A price that takes effect at a given time (see PriceScheduler). Rows are kept once resolved, so
+// the table doubles as the record of which promotion set which price.
+// (status, effective_at) serves the startup scan for pending changes; (product_id, effective_at)
+// serves the per-product listing and the effective price lookup.
+@Entity
+@Table(name = "scheduled_price_changes",
+        indexes = {
+                @Index(name = "idx_scheduled_price_changes_status", columnList = "status, effective_at"),
+                @Index(name = "idx_scheduled_price_changes_product", columnList = "product_id, effective_at")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduledPriceChange {
+
+    public enum Status {
+        PENDING,
+        APPLIED,
+        // Another change for the same product was due at the same time and came later, or a later
+        // one was applied while this one waited for a retry
+        SUPERSEDED,
+        // The product was gone, or kept changing under us, when the change was due
+        REJECTED,
+        CANCELLED
+    }
+
+    // Pooled sequence for the same reason as Product: bulk schedules are inserted in JDBC batches
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "scheduled_price_change_seq")
+    @SequenceGenerator(name = "scheduled_price_change_seq", sequenceName = "scheduled_price_change_seq",
+            allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    // No foreign key: deleting a product doesn't wait on its schedule, the change is rejected when due
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "new_price", nullable = false, precision = 10, scale = 2)
+    private BigDecimal newPrice;
+
+    @Column(name = "effective_at", nullable = false)
+    private Instant effectiveAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private Status status;
+
+    // Product version the change produced, once applied
+    @Column(name = "applied_version")
+    private Long appliedVersion;
+}
@@ -0,0 +1,28 @@
+package com.demo.store.mgmt.tool.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Units on hand per product. Reservations live in memory only (see InventoryService), so the
+// row is written only when stock is received or sold.
+@Entity
+@Table(name = "stock_levels")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLevel {
+    // Same id as the product; no foreign key, so deleting a product never waits on its stock row
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "on_hand", nullable = false)
+    private long onHand;
+
+    @Version
+    private Long version;
+}
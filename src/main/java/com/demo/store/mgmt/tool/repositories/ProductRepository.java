@@ -1,19 +1,74 @@
 package com.demo.store.mgmt.tool.repositories;
 
+import com.demo.store.mgmt.tool.dto.ProductResponse;
+import com.demo.store.mgmt.tool.dto.ProductSnapshot;
 import com.demo.store.mgmt.tool.models.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
-    Optional<Product> findByName(String name);
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+    // Read paths select straight into records: no entity instances, no dirty-checking snapshots,
+    // nothing added to the persistence context. Entities are only loaded to be modified.
+    @Query("SELECT new com.demo.store.mgmt.tool.dto.ProductSnapshot(p.id, p.name, p.price, p.version) " +
+            "FROM Product p WHERE p.id = :id")
+    Optional<ProductSnapshot> findSnapshotById(@Param("id") Long id);
 
-    @Query("SELECT p FROM Product p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<Product> findByNameContaining(@Param("name") String name);
+    // Callers keep the id list to a sane number of bind parameters
+    @Query("SELECT new com.demo.store.mgmt.tool.dto.ProductSnapshot(p.id, p.name, p.price, p.version) " +
+            "FROM Product p WHERE p.id IN :ids")
+    List<ProductSnapshot> findSnapshotsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.demo.store.mgmt.tool.dto.ProductSnapshot(p.id, p.name, p.price, p.version) " +
+            "FROM Product p WHERE p.name = :name")
+    Optional<ProductSnapshot> findSnapshotByName(@Param("name") String name);
+
+    // Which of these names are taken; callers keep the list to a sane number of bind parameters
+    @Query("SELECT p.name FROM Product p WHERE p.name IN :names")
+    List<String> findNamesIn(@Param("names") Collection<String> names);
+
+    // The pageable carries the limit, so only the rows that are returned get read
+    @Query("SELECT new com.demo.store.mgmt.tool.dto.ProductResponse(p.id, p.name, p.price) " +
+            "FROM Product p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%')) ORDER BY p.id")
+    List<ProductResponse> searchByNameContaining(@Param("name") String name, Pageable pageable);
+
+    // Range scan on idx_products_price; the pageable carries the limit and the sort
+    @Query("SELECT new com.demo.store.mgmt.tool.dto.ProductResponse(p.id, p.name, p.price) " +
+            "FROM Product p WHERE p.price BETWEEN :minPrice AND :maxPrice")
+    List<ProductResponse> findByPriceBetween(@Param("minPrice") BigDecimal minPrice,
+                                             @Param("maxPrice") BigDecimal maxPrice,
+                                             Pageable pageable);
+
+    @Query("SELECT p.version FROM Product p WHERE p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Keyset page: seeks on the primary key index instead of OFFSET, the pageable only carries the limit
+    @Query("SELECT new com.demo.store.mgmt.tool.dto.ProductResponse(p.id, p.name, p.price) " +
+            "FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductResponse> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // DTO rows are not managed, so the persistence context stays empty however many rows are streamed.
+    // Must be consumed inside a transaction and closed by the caller.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.demo.store.mgmt.tool.dto.ProductResponse(p.id, p.name, p.price) " +
+            "FROM Product p ORDER BY p.id")
+    Stream<ProductResponse> streamAll();
+
+    // Same, with the version the product cache needs
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.demo.store.mgmt.tool.dto.ProductSnapshot(p.id, p.name, p.price, p.version) " +
+            "FROM Product p ORDER BY p.id")
+    Stream<ProductSnapshot> streamSnapshots();
 }
@@ -0,0 +1,19 @@
+package com.demo.store.mgmt.tool.repositories;
+
+import com.demo.store.mgmt.tool.dto.PriceChange;
+import com.demo.store.mgmt.tool.dto.ProductSnapshot;
+
+import java.util.List;
+
+// Write paths that bypass entity loading and dirty checking
+public interface ProductRepositoryCustom {
+
+    // Returns one update count per change, 0 where the row no longer has the expected version
+    int[] updatePricesIfVersionMatches(List<PriceChange> changes);
+
+    // Inserts rows with their ids and versions as given (snapshot restore); nothing is published
+    void insertSnapshots(List<ProductSnapshot> products);
+
+    // Moves product_seq past the given id, after rows were inserted with explicit ids
+    void restartIdSequenceAfter(long maxId);
+}
@@ -0,0 +1,62 @@
+package com.demo.store.mgmt.tool.repositories;
+
+import com.demo.store.mgmt.tool.dto.PriceChange;
+import com.demo.store.mgmt.tool.dto.ProductSnapshot;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+    private static final int JDBC_BATCH_SIZE = 1000;
+    // allocationSize of product_seq, see Product
+    private static final long ID_ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Same optimistic check Hibernate does for @Version, but as one JDBC batch instead of a select + update per row
+    @Override
+    public int[] updatePricesIfVersionMatches(List<PriceChange> changes) {
+        int[][] batches = jdbcTemplate.batchUpdate(
+                "UPDATE products SET price = ?, version = version + 1 WHERE id = ? AND version = ?",
+                changes,
+                JDBC_BATCH_SIZE,
+                (statement, change) -> {
+                    statement.setBigDecimal(1, change.newPrice());
+                    statement.setLong(2, change.id());
+                    statement.setLong(3, change.expectedVersion());
+                });
+        int[] counts = new int[changes.size()];
+        int index = 0;
+        for (int[] batch : batches) {
+            for (int count : batch) {
+                counts[index++] = count;
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public void insertSnapshots(List<ProductSnapshot> products) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO products (id, name, price, version) VALUES (?, ?, ?, ?)",
+                products,
+                JDBC_BATCH_SIZE,
+                (statement, product) -> {
+                    statement.setLong(1, product.id());
+                    statement.setString(2, product.name());
+                    statement.setBigDecimal(3, product.price());
+                    statement.setLong(4, product.version());
+                });
+    }
+
+    // The pooled optimizer hands out the block of ids just below the value it reads, so the next
+    // value has to be a whole block past the highest id
+    @Override
+    public void restartIdSequenceAfter(long maxId) {
+        jdbcTemplate.execute("ALTER SEQUENCE product_seq RESTART WITH " + (maxId + ID_ALLOCATION_SIZE));
+    }
+}
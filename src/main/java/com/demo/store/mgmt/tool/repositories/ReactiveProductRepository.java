@@ -0,0 +1,135 @@
+package com.demo.store.mgmt.tool.repositories;
+
+import com.demo.store.mgmt.tool.dto.ProductResponse;
+import com.demo.store.mgmt.tool.dto.ProductSnapshot;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+// The queries of ProductRepository that the reactive profile serves requests from, over R2DBC.
+// Rows are read by position into the same records, so nothing is managed or dirty-checked.
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveProductRepository {
+
+    private static final String SNAPSHOT_COLUMNS = "SELECT id, name, price, version FROM products ";
+    private static final String RESPONSE_COLUMNS = "SELECT id, name, price FROM products ";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveProductRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<ProductSnapshot> findSnapshotById(long id) {
+        return databaseClient.sql(SNAPSHOT_COLUMNS + "WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveProductRepository::snapshot)
+                .one();
+    }
+
+    // Callers keep the id list to a sane number of bind parameters
+    public Flux<ProductSnapshot> findSnapshotsByIdIn(Collection<Long> ids) {
+        return databaseClient.sql(SNAPSHOT_COLUMNS + "WHERE id IN (:ids)")
+                .bind("ids", ids)
+                .map(ReactiveProductRepository::snapshot)
+                .all();
+    }
+
+    // Keyset page on the primary key index, like findPageAfter
+    public Flux<ProductResponse> findPageAfter(long afterId, int limit) {
+        return databaseClient.sql(RESPONSE_COLUMNS + "WHERE id > :afterId ORDER BY id LIMIT :limit")
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveProductRepository::response)
+                .all();
+    }
+
+    // Rows are pulled from the driver as the subscriber asks for them
+    public Flux<ProductResponse> streamAll() {
+        return databaseClient.sql(RESPONSE_COLUMNS + "ORDER BY id")
+                .map(ReactiveProductRepository::response)
+                .all();
+    }
+
+    public Flux<ProductResponse> searchByNameContaining(String name, int limit) {
+        return databaseClient.sql(RESPONSE_COLUMNS
+                        + "WHERE LOWER(name) LIKE LOWER(CONCAT('%', :name, '%')) ORDER BY id LIMIT :limit")
+                .bind("name", name)
+                .bind("limit", limit)
+                .map(ReactiveProductRepository::response)
+                .all();
+    }
+
+    // Range scan on idx_products_price. The sort must come from ProductService.productSort,
+    // whose properties are column names and safe to put into the statement.
+    public Flux<ProductResponse> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice, Sort sort, int limit) {
+        String orderBy = sort.stream()
+                .map(order -> order.getProperty() + " " + order.getDirection().name())
+                .collect(Collectors.joining(", "));
+        return databaseClient.sql(RESPONSE_COLUMNS
+                        + "WHERE price BETWEEN :minPrice AND :maxPrice ORDER BY " + orderBy + " LIMIT :limit")
+                .bind("minPrice", minPrice)
+                .bind("maxPrice", maxPrice)
+                .bind("limit", limit)
+                .map(ReactiveProductRepository::response)
+                .all();
+    }
+
+    // Each sequence value is the top of a block of 50 that Hibernate's pooled optimizer would hand
+    // out, and nobody else gets that value, so taking it as the id can't collide with JPA inserts
+    public Mono<Long> nextId() {
+        return databaseClient.sql("SELECT NEXT VALUE FOR product_seq")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Mono<Void> insert(long id, String name, BigDecimal price) {
+        return databaseClient.sql("INSERT INTO products (id, name, price, version) VALUES (:id, :name, :price, 0)")
+                .bind("id", id)
+                .bind("name", name)
+                .bind("price", price)
+                .then();
+    }
+
+    // Same optimistic check Hibernate does for @Version; 0 means the version moved on or the row is gone
+    public Mono<Long> updatePriceIfVersionMatches(long id, BigDecimal price, long expectedVersion) {
+        return databaseClient.sql("UPDATE products SET price = :price, version = version + 1 "
+                        + "WHERE id = :id AND version = :version")
+                .bind("price", price)
+                .bind("id", id)
+                .bind("version", expectedVersion)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteById(long id) {
+        return databaseClient.sql("DELETE FROM products WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> count() {
+        return databaseClient.sql("SELECT COUNT(*) FROM products")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    private static ProductSnapshot snapshot(Readable row) {
+        return new ProductSnapshot(row.get(0, Long.class), row.get(1, String.class), row.get(2, BigDecimal.class),
+                row.get(3, Long.class));
+    }
+
+    private static ProductResponse response(Readable row) {
+        return new ProductResponse(row.get(0, Long.class), row.get(1, String.class), row.get(2, BigDecimal.class));
+    }
+}
@@ -0,0 +1,61 @@
+package com.demo.store.mgmt.tool.repositories;
+
+import com.demo.store.mgmt.tool.dto.PendingPriceChange;
+import com.demo.store.mgmt.tool.models.ScheduledPriceChange;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface ScheduledPriceChangeRepository extends JpaRepository<ScheduledPriceChange, Long> {
+
+    // Startup recovery: only the id and the time are kept in memory. Must be consumed inside a
+    // transaction and closed by the caller.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.demo.store.mgmt.tool.dto.PendingPriceChange(s.id, s.effectiveAt) " +
+            "FROM ScheduledPriceChange s WHERE s.status = :status")
+    Stream<PendingPriceChange> streamByStatus(@Param("status") ScheduledPriceChange.Status status);
+
+    // Locks the rows being applied, so a concurrent cancel either wins before or waits until after
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ScheduledPriceChange s WHERE s.id IN :ids AND s.status = :status")
+    List<ScheduledPriceChange> findForUpdate(@Param("ids") Collection<Long> ids,
+                                             @Param("status") ScheduledPriceChange.Status status);
+
+    // Changes of these products with the given status that are due no earlier than from
+    @Query("SELECT s FROM ScheduledPriceChange s WHERE s.productId IN :productIds AND s.status = :status " +
+            "AND s.effectiveAt >= :from")
+    List<ScheduledPriceChange> findByProductIdInSince(@Param("productIds") Collection<Long> productIds,
+                                                      @Param("status") ScheduledPriceChange.Status status,
+                                                      @Param("from") Instant from);
+
+    @Query("SELECT s FROM ScheduledPriceChange s WHERE s.productId = :productId ORDER BY s.effectiveAt, s.id")
+    List<ScheduledPriceChange> findByProductId(@Param("productId") Long productId, Pageable pageable);
+
+    // The latest pending change due by the given time; the pageable only carries the limit
+    @Query("SELECT s FROM ScheduledPriceChange s WHERE s.productId = :productId AND s.status = :status " +
+            "AND s.effectiveAt <= :at ORDER BY s.effectiveAt DESC, s.id DESC")
+    List<ScheduledPriceChange> findLatestDue(@Param("productId") Long productId,
+                                             @Param("status") ScheduledPriceChange.Status status,
+                                             @Param("at") Instant at,
+                                             Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE ScheduledPriceChange s SET s.status = :to WHERE s.id = :id AND s.status = :from")
+    int updateStatus(@Param("id") Long id,
+                     @Param("from") ScheduledPriceChange.Status from,
+                     @Param("to") ScheduledPriceChange.Status to);
+}
@@ -0,0 +1,9 @@
+package com.demo.store.mgmt.tool.repositories;
+
+import com.demo.store.mgmt.tool.models.StockLevel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StockLevelRepository extends JpaRepository<StockLevel, Long>, StockLevelRepositoryCustom {
+}
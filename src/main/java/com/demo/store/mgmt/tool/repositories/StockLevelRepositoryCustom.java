@@ -0,0 +1,15 @@
+package com.demo.store.mgmt.tool.repositories;
+
+import com.demo.store.mgmt.tool.dto.StockWrite;
+
+import java.util.List;
+
+// Batched write-behind of stock levels, bypassing entity loading like ProductRepositoryCustom
+public interface StockLevelRepositoryCustom {
+
+    // Returns one update count per write, 0 where the row no longer has the expected version
+    int[] updateOnHandIfVersionMatches(List<StockWrite> writes);
+
+    // Rows that don't exist yet; returns 0 where another writer created the row first
+    int[] insertIfAbsent(List<StockWrite> writes);
+}
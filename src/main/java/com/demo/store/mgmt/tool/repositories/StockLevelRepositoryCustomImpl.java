@@ -0,0 +1,55 @@
+package com.demo.store.mgmt.tool.repositories;
+
+import com.demo.store.mgmt.tool.dto.StockWrite;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+public class StockLevelRepositoryCustomImpl implements StockLevelRepositoryCustom {
+    private static final int JDBC_BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StockLevelRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // The @Version check as one JDBC batch
+    @Override
+    public int[] updateOnHandIfVersionMatches(List<StockWrite> writes) {
+        return flatten(writes.size(), jdbcTemplate.batchUpdate(
+                "UPDATE stock_levels SET on_hand = ?, version = version + 1 WHERE product_id = ? AND version = ?",
+                writes,
+                JDBC_BATCH_SIZE,
+                (statement, write) -> {
+                    statement.setLong(1, write.onHand());
+                    statement.setLong(2, write.productId());
+                    statement.setLong(3, write.expectedVersion());
+                }));
+    }
+
+    @Override
+    public int[] insertIfAbsent(List<StockWrite> writes) {
+        return flatten(writes.size(), jdbcTemplate.batchUpdate(
+                "INSERT INTO stock_levels (product_id, on_hand, version) SELECT ?, ?, 0 " +
+                        "WHERE NOT EXISTS (SELECT 1 FROM stock_levels WHERE product_id = ?)",
+                writes,
+                JDBC_BATCH_SIZE,
+                (statement, write) -> {
+                    statement.setLong(1, write.productId());
+                    statement.setLong(2, write.onHand());
+                    statement.setLong(3, write.productId());
+                }));
+    }
+
+    private static int[] flatten(int size, int[][] batches) {
+        int[] counts = new int[size];
+        int index = 0;
+        for (int[] batch : batches) {
+            for (int count : batch) {
+                counts[index++] = count;
+            }
+        }
+        return counts;
+    }
+}
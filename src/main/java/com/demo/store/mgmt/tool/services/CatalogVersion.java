@@ -0,0 +1,25 @@
+package com.demo.store.mgmt.tool.services;
+
+import com.demo.store.mgmt.tool.events.ProductChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Aggregate version of the whole catalog, bumped after every committed product change.
+// The start time is part of it, so values from before a restart never match.
+@Component
+public class CatalogVersion {
+
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong changes = new AtomicLong();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        changes.incrementAndGet();
+    }
+
+    public String current() {
+        return epoch + "-" + changes.get();
+    }
+}
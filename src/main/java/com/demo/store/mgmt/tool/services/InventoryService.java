@@ -0,0 +1,317 @@
+package com.demo.store.mgmt.tool.services;
+
+import com.demo.store.mgmt.tool.dto.ReservationResponse;
+import com.demo.store.mgmt.tool.dto.StockLevelResponse;
+import com.demo.store.mgmt.tool.dto.StockWrite;
+import com.demo.store.mgmt.tool.events.ProductChangedEvent;
+import com.demo.store.mgmt.tool.exception.InsufficientStockException;
+import com.demo.store.mgmt.tool.exception.ProductNotFoundException;
+import com.demo.store.mgmt.tool.exception.ProductValidationException;
+import com.demo.store.mgmt.tool.exception.ReservationNotFoundException;
+import com.demo.store.mgmt.tool.models.StockLevel;
+import com.demo.store.mgmt.tool.repositories.StockLevelRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Stock levels and checkout reservations.
+//
+// Reserve, release and commit only touch an in-memory StockCounter per product (one CAS, see
+// there), so checkouts of the same hot product never queue on a row lock and can't oversell.
+// Every change marks the product dirty; a background thread writes dirty on-hand counts back in
+// JDBC batches guarded by the row's @Version. If the version no longer matches, someone else
+// changed the row (another instance, or a manual fix): the row is re-read, the difference is
+// applied to the counter, and the merged value is written on the next pass.
+//
+// Reservations are held in memory with an expiry and are not persisted: after a restart, units
+// that were reserved but not committed are simply available again.
+@Service
+public class InventoryService {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryService.class);
+
+    private final StockLevelRepository stockLevelRepository;
+    private final ProductService productService;
+    private final long reservationTtlMillis;
+
+    private final Map<Long, StockCounter> counters = new ConcurrentHashMap<>();
+    private final Map<UUID, Reservation> reservations = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final Set<Long> deleted = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService writeBehind;
+
+    private final Counter reserved;
+    private final Counter rejected;
+    private final Counter committed;
+    private final Counter released;
+    private final Counter expired;
+    private final Counter versionConflicts;
+
+    public InventoryService(StockLevelRepository stockLevelRepository,
+                            ProductService productService,
+                            MeterRegistry meterRegistry,
+                            @Value("${store.inventory.reservation-ttl:15m}") Duration reservationTtl,
+                            @Value("${store.inventory.flush-interval:1s}") Duration flushInterval) {
+        this.stockLevelRepository = stockLevelRepository;
+        this.productService = productService;
+        this.reservationTtlMillis = reservationTtl.toMillis();
+        this.reserved = reservations(meterRegistry, "reserved");
+        this.rejected = reservations(meterRegistry, "rejected");
+        this.committed = reservations(meterRegistry, "committed");
+        this.released = reservations(meterRegistry, "released");
+        this.expired = reservations(meterRegistry, "expired");
+        this.versionConflicts = Counter.builder("store.inventory.write-behind.conflicts")
+                .description("Stock writes that found the row changed by someone else")
+                .register(meterRegistry);
+        Gauge.builder("store.inventory.write-behind.pending", dirty, Set::size).register(meterRegistry);
+        Gauge.builder("store.inventory.reservations.active", reservations, Map::size).register(meterRegistry);
+
+        this.writeBehind = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "inventory-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = flushInterval.toMillis();
+        writeBehind.scheduleWithFixedDelay(this::runMaintenance, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public StockLevelResponse getStockLevel(Long productId) {
+        return toResponse(productId, counter(productId));
+    }
+
+    public StockLevelResponse restock(Long productId, int quantity) {
+        requirePositive(quantity);
+        StockCounter counter = counter(productId);
+        try {
+            counter.addOnHand(quantity);
+        } catch (ArithmeticException ex) {
+            throw new ProductValidationException("Stock of product " + productId + " would exceed " + Integer.MAX_VALUE);
+        }
+        dirty.add(productId);
+        return toResponse(productId, counter);
+    }
+
+    public ReservationResponse reserve(Long productId, int quantity) {
+        requirePositive(quantity);
+        StockCounter counter = counter(productId);
+        if (!counter.tryReserve(quantity)) {
+            rejected.increment();
+            long[] snapshot = counter.snapshot();
+            throw new InsufficientStockException(productId, quantity, Math.max(0, snapshot[0] - snapshot[1]));
+        }
+        UUID reservationId = UUID.randomUUID();
+        long expiresAt = System.currentTimeMillis() + reservationTtlMillis;
+        reservations.put(reservationId, new Reservation(productId, quantity, expiresAt));
+        reserved.increment();
+        return new ReservationResponse(reservationId, productId, quantity, Instant.ofEpochMilli(expiresAt));
+    }
+
+    // Removing the reservation first makes commit, release and expiry mutually exclusive
+    public void commit(UUID reservationId) {
+        Reservation reservation = take(reservationId);
+        StockCounter counter = counters.get(reservation.productId());
+        if (counter != null) {
+            counter.commit(reservation.quantity());
+            dirty.add(reservation.productId());
+        }
+        committed.increment();
+    }
+
+    public void release(UUID reservationId) {
+        Reservation reservation = take(reservationId);
+        StockCounter counter = counters.get(reservation.productId());
+        if (counter != null) {
+            counter.release(reservation.quantity());
+        }
+        released.increment();
+    }
+
+    // The row is deleted by the write-behind thread: a write from an after-commit listener would
+    // join the transaction that just committed and never be committed itself
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.Type.DELETED) {
+            counters.remove(event.id());
+            dirty.remove(event.id());
+            deleted.add(event.id());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writeBehind.shutdown();
+        try {
+            writeBehind.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    // Writes every dirty product's on-hand count; runs on the write-behind thread, and on shutdown
+    synchronized void flush() {
+        if (!deleted.isEmpty()) {
+            List<Long> productIds = new ArrayList<>(deleted);
+            stockLevelRepository.deleteAllByIdInBatch(productIds);
+            deleted.removeAll(productIds);
+        }
+        List<StockWrite> updates = new ArrayList<>();
+        List<StockWrite> inserts = new ArrayList<>();
+        for (Iterator<Long> it = dirty.iterator(); it.hasNext(); ) {
+            Long productId = it.next();
+            // Removed before the counter is read: a change made after the read marks it dirty again
+            it.remove();
+            StockCounter counter = counters.get(productId);
+            if (counter == null) {
+                continue;
+            }
+            StockWrite write = new StockWrite(productId, counter.onHand(), counter.persistedVersion);
+            (counter.persistedVersion < 0 ? inserts : updates).add(write);
+        }
+        if (updates.isEmpty() && inserts.isEmpty()) {
+            return;
+        }
+        try {
+            if (!updates.isEmpty()) {
+                applyResults(updates, stockLevelRepository.updateOnHandIfVersionMatches(updates), false);
+            }
+            if (!inserts.isEmpty()) {
+                applyResults(inserts, stockLevelRepository.insertIfAbsent(inserts), true);
+            }
+        } catch (RuntimeException ex) {
+            // Nothing is lost: the counters still hold the truth, try again next time
+            updates.forEach(write -> dirty.add(write.productId()));
+            inserts.forEach(write -> dirty.add(write.productId()));
+            throw ex;
+        }
+        logger.debug("Wrote {} stock levels", updates.size() + inserts.size());
+    }
+
+    int activeReservations() {
+        return reservations.size();
+    }
+
+    private void applyResults(List<StockWrite> writes, int[] counts, boolean inserted) {
+        for (int i = 0; i < writes.size(); i++) {
+            StockWrite write = writes.get(i);
+            StockCounter counter = counters.get(write.productId());
+            if (counter == null) {
+                continue;
+            }
+            if (counts[i] > 0) {
+                counter.persistedOnHand = write.onHand();
+                counter.persistedVersion = inserted ? 0 : write.expectedVersion() + 1;
+            } else {
+                reconcile(write.productId(), counter);
+            }
+        }
+    }
+
+    // The row changed under us: take over what the other writer did, then write our total on top
+    private void reconcile(Long productId, StockCounter counter) {
+        versionConflicts.increment();
+        Optional<StockLevel> row = stockLevelRepository.findById(productId);
+        if (row.isPresent()) {
+            long externalChange = row.get().getOnHand() - counter.persistedOnHand;
+            if (externalChange != 0) {
+                counter.addOnHand(externalChange);
+            }
+            counter.persistedOnHand = row.get().getOnHand();
+            counter.persistedVersion = row.get().getVersion();
+            logger.info("Stock of product {} was changed elsewhere by {}, merged", productId, externalChange);
+        } else {
+            counter.persistedVersion = -1;
+        }
+        dirty.add(productId);
+    }
+
+    private void runMaintenance() {
+        try {
+            expireReservations();
+            flush();
+        } catch (RuntimeException ex) {
+            logger.warn("Stock write-behind failed, will retry: {}", ex.getMessage());
+        }
+    }
+
+    private void expireReservations() {
+        long now = System.currentTimeMillis();
+        reservations.forEach((reservationId, reservation) -> {
+            if (reservation.expiresAtMillis() <= now && reservations.remove(reservationId, reservation)) {
+                StockCounter counter = counters.get(reservation.productId());
+                if (counter != null) {
+                    counter.release(reservation.quantity());
+                }
+                expired.increment();
+            }
+        });
+    }
+
+    private Reservation take(UUID reservationId) {
+        Reservation reservation = reservations.remove(reservationId);
+        if (reservation == null) {
+            throw new ReservationNotFoundException(reservationId);
+        }
+        return reservation;
+    }
+
+    // Loaded on first use; a product without a stock row has nothing on hand
+    private StockCounter counter(Long productId) {
+        StockCounter counter = counters.get(productId);
+        if (counter != null) {
+            return counter;
+        }
+        if (productService.findProductVersion(productId).isEmpty()) {
+            throw new ProductNotFoundException(productId);
+        }
+        StockCounter loaded = stockLevelRepository.findById(productId)
+                .map(row -> new StockCounter(row.getOnHand(), row.getVersion()))
+                .orElseGet(() -> new StockCounter(0, -1));
+        StockCounter raced = counters.putIfAbsent(productId, loaded);
+        if (raced != null) {
+            return raced;
+        }
+        // Deleted between the check and the put: the listener's remove came first, so undo ours
+        if (deleted.contains(productId)) {
+            counters.remove(productId, loaded);
+            throw new ProductNotFoundException(productId);
+        }
+        return loaded;
+    }
+
+    private static StockLevelResponse toResponse(Long productId, StockCounter counter) {
+        long[] snapshot = counter.snapshot();
+        return new StockLevelResponse(productId, snapshot[0], snapshot[1], Math.max(0, snapshot[0] - snapshot[1]));
+    }
+
+    private static void requirePositive(int quantity) {
+        if (quantity < 1) {
+            throw new ProductValidationException("Quantity must be at least 1");
+        }
+    }
+
+    private static Counter reservations(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("store.inventory.reservations").tag("outcome", outcome).register(meterRegistry);
+    }
+
+    private record Reservation(Long productId, int quantity, long expiresAtMillis) {}
+}
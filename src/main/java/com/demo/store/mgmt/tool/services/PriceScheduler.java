@@ -0,0 +1,412 @@
+package com.demo.store.mgmt.tool.services;
+
+import com.demo.store.mgmt.tool.audit.PriceAuditLog;
+import com.demo.store.mgmt.tool.audit.PriceAuditRecord;
+import com.demo.store.mgmt.tool.dto.AppliedPriceChange;
+import com.demo.store.mgmt.tool.dto.BulkPriceUpdateResponse;
+import com.demo.store.mgmt.tool.dto.EffectivePriceResponse;
+import com.demo.store.mgmt.tool.dto.PendingPriceChange;
+import com.demo.store.mgmt.tool.dto.PriceChange;
+import com.demo.store.mgmt.tool.dto.ProductSnapshot;
+import com.demo.store.mgmt.tool.dto.RejectedPriceChange;
+import com.demo.store.mgmt.tool.dto.SchedulePriceRequest;
+import com.demo.store.mgmt.tool.dto.ScheduledPriceChangeRequest;
+import com.demo.store.mgmt.tool.dto.ScheduledPriceResponse;
+import com.demo.store.mgmt.tool.exception.ProductNotFoundException;
+import com.demo.store.mgmt.tool.exception.ProductValidationException;
+import com.demo.store.mgmt.tool.exception.ScheduledPriceChangeNotFoundException;
+import com.demo.store.mgmt.tool.models.ScheduledPriceChange;
+import com.demo.store.mgmt.tool.repositories.ProductRepository;
+import com.demo.store.mgmt.tool.repositories.ScheduledPriceChangeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Price changes that take effect at a given time.
+//
+// Schedules are rows in scheduled_price_changes; in memory only (id, effectiveAt) is kept, in a
+// hashed timer wheel (see TimerWheel) that one thread advances every tick. Whatever is due is
+// applied in batches of batch-size, one transaction each: the schedule rows are locked, the prices
+// go through ProductService.changeProductPrices (one versioned JDBC batch, events and audit as for
+// any bulk update) and the rows are marked in the same transaction. 100k changes due at midnight
+// are therefore a few hundred statements from a single writer, not 100k concurrent PUTs.
+//
+// A change that loses a version race is retried on the next tick, up to max-attempts, unless a
+// later change to the same product has been applied in the meantime; it is then superseded. Cancelled
+// changes stay in the wheel and are dropped when due, since the locked read only returns pending
+// rows. Pending rows are loaded back into the wheel at startup; those already due are applied on
+// the first tick.
+@Service
+public class PriceScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(PriceScheduler.class);
+    public static final int MAX_LISTED_CHANGES = 1000;
+    private static final Comparator<ScheduledPriceChange> DUE_ORDER =
+            Comparator.comparing(ScheduledPriceChange::getEffectiveAt).thenComparing(ScheduledPriceChange::getId);
+
+    private final ScheduledPriceChangeRepository scheduleRepository;
+    private final ProductRepository productRepository;
+    private final ProductService productService;
+    private final PriceAuditLog priceAuditLog;
+    private final TransactionTemplate transactionTemplate;
+    private final long tickMillis;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    private final TimerWheel<PendingPriceChange> wheel;
+    // Only touched by the wheel thread
+    private final Map<Long, Integer> attempts = new HashMap<>();
+    private final ScheduledExecutorService ticker;
+
+    private final Counter applied;
+    private final Counter superseded;
+    private final Counter rejected;
+    private final Counter retried;
+    private final Timer lag;
+
+    public PriceScheduler(ScheduledPriceChangeRepository scheduleRepository,
+                          ProductRepository productRepository,
+                          ProductService productService,
+                          PriceAuditLog priceAuditLog,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${store.price-schedule.tick:100ms}") Duration tick,
+                          @Value("${store.price-schedule.wheel-size:4096}") int wheelSize,
+                          @Value("${store.price-schedule.batch-size:1000}") int batchSize,
+                          @Value("${store.price-schedule.max-attempts:3}") int maxAttempts) {
+        this.scheduleRepository = scheduleRepository;
+        this.productRepository = productRepository;
+        this.productService = productService;
+        this.priceAuditLog = priceAuditLog;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tickMillis = tick.toMillis();
+        this.batchSize = Math.min(batchSize, ProductService.MAX_BULK_PRICE_CHANGES);
+        this.maxAttempts = maxAttempts;
+        this.wheel = new TimerWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+
+        this.applied = changes(meterRegistry, "applied");
+        this.superseded = changes(meterRegistry, "superseded");
+        this.rejected = changes(meterRegistry, "rejected");
+        this.retried = changes(meterRegistry, "retried");
+        this.lag = Timer.builder("store.price-schedule.lag")
+                .description("How long after its effective time a scheduled price was applied")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("store.price-schedule.pending", wheel, TimerWheel::size).register(meterRegistry);
+
+        this.ticker = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "price-schedule-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public ScheduledPriceResponse schedule(Long productId, SchedulePriceRequest request) {
+        if (productService.findProductById(productId).isEmpty()) {
+            throw new ProductNotFoundException(productId);
+        }
+        requireSchedulable(request.newPrice(), request.effectiveAt(), Instant.now());
+        ScheduledPriceChange saved = scheduleRepository.save(new ScheduledPriceChange(null, productId,
+                ProductService.normalizePrice(request.newPrice()), storedInstant(request.effectiveAt()), ScheduledPriceChange.Status.PENDING, null));
+        enqueue(saved);
+        return ScheduledPriceResponse.of(saved);
+    }
+
+    // All or nothing on validation; rows are then inserted batch-size at a time, each batch in its own
+    // transaction, and only handed to the wheel once committed
+    public List<ScheduledPriceResponse> scheduleAll(List<ScheduledPriceChangeRequest> requests) {
+        if (requests.size() > ProductService.MAX_BULK_PRICE_CHANGES) {
+            throw new ProductValidationException("At most " + ProductService.MAX_BULK_PRICE_CHANGES
+                    + " scheduled price changes per request");
+        }
+        Instant now = Instant.now();
+        for (ScheduledPriceChangeRequest request : requests) {
+            if (request.productId() == null) {
+                throw new ProductValidationException("Product id is required");
+            }
+            requireSchedulable(request.newPrice(), request.effectiveAt(), now);
+        }
+        List<Long> ids = requests.stream().map(ScheduledPriceChangeRequest::productId).distinct().toList();
+        Set<Long> found = new HashSet<>(ids.size());
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            productRepository.findSnapshotsByIdIn(ids.subList(from, Math.min(from + batchSize, ids.size())))
+                    .forEach(product -> found.add(product.id()));
+        }
+        for (Long id : ids) {
+            if (!found.contains(id)) {
+                throw new ProductValidationException("Product not found with ID: " + id);
+            }
+        }
+
+        List<ScheduledPriceResponse> responses = new ArrayList<>(requests.size());
+        for (int from = 0; from < requests.size(); from += batchSize) {
+            List<ScheduledPriceChange> batch = requests.subList(from, Math.min(from + batchSize, requests.size()))
+                    .stream()
+                    .map(request -> new ScheduledPriceChange(null, request.productId(),
+                            ProductService.normalizePrice(request.newPrice()),
+                            storedInstant(request.effectiveAt()), ScheduledPriceChange.Status.PENDING, null))
+                    .toList();
+            for (ScheduledPriceChange saved : scheduleRepository.saveAll(batch)) {
+                enqueue(saved);
+                responses.add(ScheduledPriceResponse.of(saved));
+            }
+        }
+        logger.info("Scheduled {} price changes for {} products", responses.size(), ids.size());
+        return responses;
+    }
+
+    public List<ScheduledPriceResponse> findByProductId(Long productId, int limit) {
+        if (limit < 1 || limit > MAX_LISTED_CHANGES) {
+            throw new ProductValidationException("Limit must be between 1 and " + MAX_LISTED_CHANGES);
+        }
+        return scheduleRepository.findByProductId(productId, PageRequest.of(0, limit)).stream()
+                .map(ScheduledPriceResponse::of)
+                .toList();
+    }
+
+    @Transactional
+    public void cancel(Long scheduleId) {
+        int updated = scheduleRepository.updateStatus(scheduleId, ScheduledPriceChange.Status.PENDING,
+                ScheduledPriceChange.Status.CANCELLED);
+        if (updated == 0) {
+            throw new ScheduledPriceChangeNotFoundException(scheduleId);
+        }
+    }
+
+    // From now on: the latest pending change due by then, else the current price. In the past: the
+    // audit log is replayed backwards from the current price, so that answer is only as complete as
+    // the audit log (see store.audit.retention).
+    public EffectivePriceResponse effectivePrice(Long productId, Instant at) throws IOException {
+        ProductSnapshot product = productService.findProductById(productId)
+                .orElseThrow(() -> new ProductNotFoundException(productId));
+        if (!at.isBefore(Instant.now())) {
+            List<ScheduledPriceChange> due = scheduleRepository.findLatestDue(productId,
+                    ScheduledPriceChange.Status.PENDING, at, PageRequest.of(0, 1));
+            if (!due.isEmpty()) {
+                return new EffectivePriceResponse(productId, due.get(0).getNewPrice(), at, due.get(0).getId());
+            }
+            return new EffectivePriceResponse(productId, product.price(), at, null);
+        }
+
+        BigDecimal price = product.price();
+        long atMillis = at.toEpochMilli();
+        List<PriceAuditRecord> history = priceAuditLog.history(productId);
+        for (int i = history.size() - 1; i >= 0; i--) {
+            PriceAuditRecord record = history.get(i);
+            if (record.timestampMillis() <= atMillis) {
+                price = record.newPrice();
+                break;
+            }
+            if (record.oldPrice() != null) {
+                price = record.oldPrice();
+            }
+        }
+        return new EffectivePriceResponse(productId, price, at, null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void recover() {
+        long start = System.nanoTime();
+        long[] recovered = {0};
+        try (Stream<PendingPriceChange> pending = scheduleRepository.streamByStatus(ScheduledPriceChange.Status.PENDING)) {
+            pending.forEach(change -> {
+                wheel.schedule(change.effectiveAt().toEpochMilli(), change);
+                recovered[0]++;
+            });
+        }
+        logger.info("Recovered {} pending price changes in {} ms", recovered[0], (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdown();
+        try {
+            ticker.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // The column keeps microseconds and the database rounds the rest, which could move a change
+    // past the instant it was scheduled for; truncated, it is never later than the one requested
+    static Instant storedInstant(Instant effectiveAt) {
+        return effectiveAt.truncatedTo(ChronoUnit.MICROS);
+    }
+
+    static void requireSchedulable(BigDecimal newPrice, Instant effectiveAt, Instant now) {
+        ProductService.requireValidPrice(ProductService.normalizePrice(newPrice));
+        if (effectiveAt == null || !effectiveAt.isAfter(now)) {
+            throw new ProductValidationException("Effective time must be in the future");
+        }
+    }
+
+    private void enqueue(ScheduledPriceChange change) {
+        wheel.schedule(change.getEffectiveAt().toEpochMilli(),
+                new PendingPriceChange(change.getId(), change.getEffectiveAt()));
+    }
+
+    private void tick() {
+        List<PendingPriceChange> due;
+        try {
+            due = wheel.advance(System.currentTimeMillis());
+        } catch (RuntimeException ex) {
+            logger.error("Price schedule tick failed", ex);
+            return;
+        }
+        // Due changes come in effective-time order, so across batches the later change of a product wins
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<PendingPriceChange> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            try {
+                Outcome outcome = transactionTemplate.execute(status -> apply(batch));
+                recordOutcome(batch, outcome);
+            } catch (RuntimeException ex) {
+                logger.warn("Applying {} scheduled price changes failed, will retry: {}", batch.size(), ex.getMessage());
+                batch.forEach(this::retryOrGiveUp);
+            }
+        }
+    }
+
+    private Outcome apply(List<PendingPriceChange> batch) {
+        Map<Long, PendingPriceChange> pending = new LinkedHashMap<>(batch.size());
+        batch.forEach(change -> pending.putIfAbsent(change.id(), change));
+        List<ScheduledPriceChange> rows = new ArrayList<>(
+                scheduleRepository.findForUpdate(pending.keySet(), ScheduledPriceChange.Status.PENDING));
+
+        // Several changes for one product in the same batch: the last one due wins
+        rows.sort(DUE_ORDER);
+        Map<Long, ScheduledPriceChange> latestApplied = latestApplied(rows);
+        Map<Long, ScheduledPriceChange> byProduct = new LinkedHashMap<>(rows.size());
+        int supersededCount = 0;
+        for (ScheduledPriceChange row : rows) {
+            // A retried change must not undo a later one that got in while it waited
+            ScheduledPriceChange later = latestApplied.get(row.getProductId());
+            if (later != null && DUE_ORDER.compare(later, row) > 0) {
+                row.setStatus(ScheduledPriceChange.Status.SUPERSEDED);
+                supersededCount++;
+                continue;
+            }
+            ScheduledPriceChange previous = byProduct.put(row.getProductId(), row);
+            if (previous != null) {
+                previous.setStatus(ScheduledPriceChange.Status.SUPERSEDED);
+                supersededCount++;
+            }
+        }
+        if (byProduct.isEmpty()) {
+            return new Outcome(List.of(), supersededCount, 0, List.of());
+        }
+
+        List<PriceChange> changes = byProduct.values().stream()
+                .map(row -> new PriceChange(row.getProductId(), row.getNewPrice(), null))
+                .toList();
+        BulkPriceUpdateResponse response = productService.changeProductPrices(changes);
+
+        List<ScheduledPriceChange> appliedRows = new ArrayList<>(response.applied().size());
+        for (AppliedPriceChange change : response.applied()) {
+            ScheduledPriceChange row = byProduct.get(change.id());
+            row.setStatus(ScheduledPriceChange.Status.APPLIED);
+            row.setAppliedVersion(change.version());
+            appliedRows.add(row);
+        }
+        List<PendingPriceChange> retry = new ArrayList<>();
+        int rejectedCount = 0;
+        for (RejectedPriceChange change : response.rejected()) {
+            ScheduledPriceChange row = byProduct.get(change.id());
+            if (change.reason() == RejectedPriceChange.Reason.VERSION_CONFLICT
+                    && attempts.getOrDefault(row.getId(), 0) + 1 < maxAttempts) {
+                retry.add(pending.get(row.getId())); // stays pending
+            } else {
+                logger.warn("Scheduled price change {} rejected: {}", row.getId(), change.message());
+                row.setStatus(ScheduledPriceChange.Status.REJECTED);
+                rejectedCount++;
+            }
+        }
+        return new Outcome(appliedRows, supersededCount, rejectedCount, retry);
+    }
+
+    // Per product, the latest applied change due no earlier than the earliest of the given rows
+    private Map<Long, ScheduledPriceChange> latestApplied(List<ScheduledPriceChange> rows) {
+        Map<Long, ScheduledPriceChange> latest = new HashMap<>();
+        if (rows.isEmpty()) {
+            return latest;
+        }
+        Set<Long> productIds = new HashSet<>();
+        rows.forEach(row -> productIds.add(row.getProductId()));
+        for (ScheduledPriceChange row : scheduleRepository.findByProductIdInSince(productIds,
+                ScheduledPriceChange.Status.APPLIED, rows.get(0).getEffectiveAt())) {
+            latest.merge(row.getProductId(), row, (a, b) -> DUE_ORDER.compare(a, b) >= 0 ? a : b);
+        }
+        return latest;
+    }
+
+    // Runs after the batch has committed
+    private void recordOutcome(List<PendingPriceChange> batch, Outcome outcome) {
+        Set<Long> retrying = new HashSet<>();
+        outcome.retry().forEach(change -> retrying.add(change.id()));
+        batch.forEach(change -> {
+            if (!retrying.contains(change.id())) {
+                attempts.remove(change.id());
+            }
+        });
+        long now = System.currentTimeMillis();
+        for (ScheduledPriceChange row : outcome.applied()) {
+            lag.record(Math.max(0, now - row.getEffectiveAt().toEpochMilli()), TimeUnit.MILLISECONDS);
+        }
+        applied.increment(outcome.applied().size());
+        superseded.increment(outcome.superseded());
+        rejected.increment(outcome.rejected());
+        outcome.retry().forEach(this::retryOrGiveUp);
+    }
+
+    // Whatever is given up on stays pending in the table and is picked up again on the next start
+    private void retryOrGiveUp(PendingPriceChange change) {
+        int attempt = attempts.merge(change.id(), 1, Integer::sum);
+        if (attempt < maxAttempts) {
+            retried.increment();
+            wheel.reschedule(System.currentTimeMillis() + tickMillis, change);
+        } else {
+            attempts.remove(change.id());
+            logger.error("Giving up on scheduled price change {} after {} attempts", change.id(), attempt);
+        }
+    }
+
+    private static Counter changes(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("store.price-schedule.changes")
+                .description("Scheduled price changes by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record Outcome(List<ScheduledPriceChange> applied, int superseded, int rejected,
+                           List<PendingPriceChange> retry) {}
+}
@@ -0,0 +1,169 @@
+package com.demo.store.mgmt.tool.services;
+
+import com.demo.store.mgmt.tool.exception.ConcurrencyConflictException;
+import com.demo.store.mgmt.tool.models.Product;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Sits in front of ProductService.changeProductPrice for single-product price updates.
+//
+// Version conflicts are retried here with jittered exponential backoff instead of bouncing a 409
+// back to the client, which would retry over HTTP and add load. With coalescing on, writers of the
+// same product queue behind the one currently writing it, and everything queued is collapsed into a
+// single write of the last price that arrived (last writer wins); all of them get that result.
+// Updates with an expected version (If-Match) are neither retried nor coalesced: the caller asked
+// for that exact version, so a conflict is their answer.
+@Service
+public class PriceUpdateCoordinator {
+
+    private static final int STRIPES = 64;
+
+    private final ProductService productService;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final boolean coalesce;
+    private final Counter retries;
+    private final Counter coalescedWrites;
+    private final Counter conflicts;
+
+    private final ConcurrentHashMap<Long, Batch> queued = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    public PriceUpdateCoordinator(ProductService productService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${store.price-update.max-attempts:3}") int maxAttempts,
+                                  @Value("${store.price-update.initial-backoff:10ms}") Duration initialBackoff,
+                                  @Value("${store.price-update.max-backoff:200ms}") Duration maxBackoff,
+                                  @Value("${store.price-update.coalesce:false}") boolean coalesce) {
+        this.productService = productService;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+        this.coalesce = coalesce;
+        this.retries = Counter.builder("store.product.price.retries")
+                .description("Price updates retried after a version conflict")
+                .register(meterRegistry);
+        this.coalescedWrites = Counter.builder("store.product.price.coalesced")
+                .description("Price updates folded into another writer's update")
+                .register(meterRegistry);
+        this.conflicts = Counter.builder("store.product.price.conflicts")
+                .description("Price updates that still conflicted after all retries")
+                .register(meterRegistry);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public Product changeProductPrice(Long id, BigDecimal newPrice, Long expectedVersion) {
+        if (expectedVersion != null) {
+            return productService.changeProductPrice(id, newPrice, expectedVersion);
+        }
+        if (!coalesce) {
+            return writeWithRetry(id, newPrice);
+        }
+        // Reject bad input before it can become the price everyone in the batch ends up with
+        ProductService.requireValidPrice(ProductService.normalizePrice(newPrice));
+
+        Batch joined = new Batch(newPrice);
+        Batch batch = queued.merge(id, joined, (current, candidate) -> current.join(newPrice));
+        if (batch != joined) {
+            coalescedWrites.increment();
+            return batch.await();
+        }
+
+        // We opened this batch, so we write it once the previous write of this product is done
+        ReentrantLock lock = stripes[stripe(id)];
+        lock.lock();
+        try {
+            // Closing the batch; later writers start the next one and wait for this lock
+            queued.remove(id, batch);
+            batch.result.complete(writeWithRetry(id, batch.price));
+        } catch (RuntimeException ex) {
+            batch.result.completeExceptionally(ex);
+        } finally {
+            lock.unlock();
+        }
+        return batch.await();
+    }
+
+    // Writers waiting to be folded into the next write of this product (for tests)
+    int queuedWriters(Long id) {
+        Batch batch = queued.get(id);
+        return batch == null ? 0 : batch.writers;
+    }
+
+    private Product writeWithRetry(Long id, BigDecimal newPrice) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return productService.changeProductPrice(id, newPrice);
+            } catch (ConcurrencyConflictException ex) {
+                if (attempt >= maxAttempts) {
+                    conflicts.increment();
+                    throw ex;
+                }
+                retries.increment();
+                backOff(attempt, ex);
+            }
+        }
+    }
+
+    // Full jitter: a random pause up to the exponential bound, so colliding writers spread out
+    private void backOff(int attempt, ConcurrencyConflictException conflict) {
+        long bound = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt - 1, 20));
+        if (bound <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            conflicts.increment();
+            throw conflict;
+        }
+    }
+
+    private static int stripe(Long id) {
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 58);
+    }
+
+    // Writers queued for one product. Fields are only changed inside ConcurrentHashMap.merge,
+    // before the batch is removed from the map, and read by the writer after removing it.
+    private static final class Batch {
+        private volatile BigDecimal price;
+        private volatile int writers = 1;
+        private final CompletableFuture<Product> result = new CompletableFuture<>();
+
+        Batch(BigDecimal price) {
+            this.price = price;
+        }
+
+        Batch join(BigDecimal newPrice) {
+            price = newPrice;
+            writers++;
+            return this;
+        }
+
+        Product await() {
+            try {
+                return result.join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw ex;
+            }
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.demo.store.mgmt.tool.services;
+
+import com.demo.store.mgmt.tool.dto.AddProductRequest;
+import com.demo.store.mgmt.tool.dto.ImportReport;
+import com.demo.store.mgmt.tool.dto.ImportRowError;
+import com.demo.store.mgmt.tool.events.ProductChangedEvent;
+import com.demo.store.mgmt.tool.models.Product;
+import com.demo.store.mgmt.tool.repositories.ProductRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Streams a CSV or NDJSON body into the products table. Rows are validated like a single
+// POST and written in batches, each batch in its own transaction. Names that are already taken
+// are rejected before a batch is written, so that one duplicate doesn't roll back the whole
+// batch; if a batch fails anyway, its rows are retried one by one.
+@Service
+public class ProductImportService {
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+    public enum Format { CSV, NDJSON }
+
+    private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public ProductImportService(ProductRepository productRepository,
+                                EntityManager entityManager,
+                                PlatformTransactionManager transactionManager,
+                                ApplicationEventPublisher eventPublisher,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                @Value("${store.import.batch-size:1000}") int batchSize,
+                                @Value("${store.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public ImportReport importProducts(InputStream body, Format format) throws IOException {
+        long start = System.nanoTime();
+        Progress progress = new Progress();
+        List<Row> batch = new ArrayList<>(batchSize);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || (format == Format.CSV && lineNumber == 1 && isCsvHeader(line))) {
+                continue;
+            }
+            progress.rowsRead++;
+
+            AddProductRequest request;
+            try {
+                request = format == Format.CSV ? parseCsv(line) : objectMapper.readValue(line, AddProductRequest.class);
+            } catch (IllegalArgumentException ex) {
+                progress.reject(lineNumber, "Unreadable row: " + ex.getMessage());
+                continue;
+            } catch (JsonProcessingException ex) {
+                progress.reject(lineNumber, "Unreadable row: " + ex.getOriginalMessage());
+                continue;
+            }
+            if (request == null) {
+                // A JSON null line; the validator would throw on it
+                progress.reject(lineNumber, "Unreadable row: expected a product object");
+                continue;
+            }
+            Set<ConstraintViolation<AddProductRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                progress.reject(lineNumber, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+                continue;
+            }
+
+            batch.add(new Row(lineNumber, request));
+            if (batch.size() == batchSize) {
+                writeBatch(batch, progress);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch, progress);
+        }
+
+        logger.info("Imported {} of {} products in {} ms", progress.imported, progress.rowsRead,
+                (System.nanoTime() - start) / 1_000_000);
+        return new ImportReport(progress.rowsRead, progress.imported, progress.rejected, progress.errors);
+    }
+
+    private void writeBatch(List<Row> rows, Progress progress) {
+        List<Row> insertable = withoutTakenNames(rows, progress);
+        if (insertable.isEmpty()) {
+            return;
+        }
+        try {
+            insert(insertable);
+            progress.imported += insertable.size();
+        } catch (RuntimeException ex) {
+            // Something the name check can't see, such as the same name inserted concurrently
+            logger.warn("Import batch of {} rows starting at line {} failed, retrying row by row: {}",
+                    insertable.size(), insertable.get(0).line(), reason(ex));
+            for (Row row : insertable) {
+                try {
+                    insert(List.of(row));
+                    progress.imported++;
+                } catch (RuntimeException rowEx) {
+                    progress.reject(row.line(), "Row rejected: " + reason(rowEx));
+                }
+            }
+        }
+    }
+
+    // Rejects rows whose name is already in the table or earlier in the batch; earlier batches
+    // have been committed, so the table query covers them
+    private List<Row> withoutTakenNames(List<Row> rows, Progress progress) {
+        Set<String> taken = new HashSet<>(rows.size());
+        for (int from = 0; from < rows.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<String> names = rows.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, rows.size())).stream()
+                    .map(row -> row.request().name())
+                    .toList();
+            taken.addAll(productRepository.findNamesIn(names));
+        }
+        List<Row> insertable = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            if (taken.add(row.request().name())) {
+                insertable.add(row);
+            } else {
+                progress.reject(row.line(), "A product named '" + row.request().name() + "' already exists");
+            }
+        }
+        return insertable;
+    }
+
+    private void insert(List<Row> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Product> products = new ArrayList<>(rows.size());
+            for (Row row : rows) {
+                Product product = new Product();
+                product.setName(row.request().name());
+                // Rounded as in addProduct, so the created events carry the stored price
+                product.setPrice(ProductService.normalizePrice(row.request().price()));
+                products.add(product);
+            }
+            productRepository.saveAll(products);
+            // Flush as one JDBC batch, then detach so the persistence context doesn't grow with the import
+            entityManager.flush();
+            entityManager.clear();
+            products.forEach(product -> eventPublisher.publishEvent(ProductChangedEvent.created(product)));
+        });
+    }
+
+    private static String reason(RuntimeException ex) {
+        return NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+    }
+
+    private static boolean isCsvHeader(String line) {
+        return line.replace(" ", "").equalsIgnoreCase("name,price");
+    }
+
+    // name,price with RFC 4180 quoting, so names may contain commas and doubled quotes
+    static AddProductRequest parseCsv(String line) {
+        List<String> fields = new ArrayList<>(2);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+
+        if (fields.size() != 2) {
+            throw new IllegalArgumentException("expected 2 columns (name,price) but found " + fields.size());
+        }
+        String price = fields.get(1).trim();
+        if (price.isEmpty()) {
+            return new AddProductRequest(fields.get(0).trim(), null);
+        }
+        try {
+            return new AddProductRequest(fields.get(0).trim(), new BigDecimal(price));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("price '" + price + "' is not a number");
+        }
+    }
+
+    private record Row(long line, AddProductRequest request) {}
+
+    private final class Progress {
+        private long rowsRead;
+        private long imported;
+        private long rejected;
+        private final List<ImportRowError> errors = new ArrayList<>();
+
+        void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportRowError(line, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.demo.store.mgmt.tool.services;
+
+import com.demo.store.mgmt.tool.dto.ProductResponse;
+import com.demo.store.mgmt.tool.dto.ProductSnapshot;
+import com.demo.store.mgmt.tool.events.ProductChangedEvent;
+import com.demo.store.mgmt.tool.repositories.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// In-memory trigram index over product names. A leading-wildcard LIKE can't use any index,
+// so substring search is answered from here once the index has been built at startup.
+//
+// Like ProductCache and PriceBook, every document carries the row version and a price is only
+// replaced by a newer one, so commit listeners running out of order can't leave an old price
+// behind. Deleted ids keep a tombstone that no late event can bring back.
+@Component
+public class ProductSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    // Exact matches first, then prefix matches, then shorter names, then lower ids
+    private static final Comparator<Match> RANKING = Comparator.comparingInt(Match::rank)
+            .thenComparingInt(Match::length)
+            .thenComparingLong(Match::id);
+
+    private final ProductRepository productRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // All fields below are guarded by the lock
+    private Documents documents = new Documents();
+    private List<ProductChangedEvent> pendingDuringRebuild;
+    private boolean ready;
+
+    public ProductSearchIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        Documents rebuilt = new Documents();
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+            rebuilt.deleted.addAll(documents.deleted);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long start = System.nanoTime();
+        try (Stream<ProductSnapshot> products = productRepository.streamSnapshots()) {
+            products.forEach(product -> rebuilt.upsert(product.id(), product.name(), product.price(), product.version()));
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Changes committed while we were reading may or may not be in the snapshot;
+            // replaying them is safe because every operation is idempotent
+            pendingDuringRebuild.forEach(rebuilt::apply);
+            pendingDuringRebuild = null;
+            documents = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Product search index built with {} products in {} ms",
+                rebuilt.liveCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(event);
+            }
+            documents.apply(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return ready;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<ProductResponse> search(String query, int limit) {
+        String folded = fold(query);
+        lock.readLock().lock();
+        try {
+            return documents.search(folded, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String fold(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    // Packs three UTF-16 chars into one key
+    static long trigram(String value, int start) {
+        return ((long) value.charAt(start) << 32) | ((long) value.charAt(start + 1) << 16) | value.charAt(start + 2);
+    }
+
+    private record Match(int slot, int rank, int length, long id) {}
+
+    // Documents get dense slot numbers in insertion order, so every posting list is sorted
+    private static final class Documents {
+        private long[] ids = new long[1024];
+        private String[] names = new String[1024];
+        private String[] foldedNames = new String[1024];
+        private BigDecimal[] prices = new BigDecimal[1024];
+        private long[] versions = new long[1024];
+        private int slotCount;
+        private int deletedCount;
+        private final Map<Long, Integer> slotById = new HashMap<>();
+        private final Map<Long, Postings> postings = new HashMap<>();
+        // Ids are never reused, so a tombstone can stay for good
+        private final Set<Long> deleted = new HashSet<>();
+
+        void apply(ProductChangedEvent event) {
+            switch (event.type()) {
+                case CREATED, PRICE_CHANGED -> upsert(event.id(), event.name(), event.price(), event.version());
+                case DELETED -> remove(event.id());
+            }
+        }
+
+        void upsert(long id, String name, BigDecimal price, Long version) {
+            if (deleted.contains(id)) {
+                return;
+            }
+            long newVersion = version == null ? 0L : version;
+            Integer existing = slotById.get(id);
+            if (existing != null) {
+                // Names can't change through the API, only the price needs refreshing.
+                // Equal versions still replace each other, so replaying an event is harmless.
+                if (newVersion >= versions[existing]) {
+                    prices[existing] = price;
+                    versions[existing] = newVersion;
+                }
+                return;
+            }
+            if (slotCount == ids.length) {
+                int capacity = slotCount * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                names = Arrays.copyOf(names, capacity);
+                foldedNames = Arrays.copyOf(foldedNames, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+                versions = Arrays.copyOf(versions, capacity);
+            }
+            int slot = slotCount++;
+            String folded = fold(name);
+            ids[slot] = id;
+            names[slot] = name;
+            foldedNames[slot] = folded;
+            prices[slot] = price;
+            versions[slot] = newVersion;
+            slotById.put(id, slot);
+            for (int i = 0; i + 3 <= folded.length(); i++) {
+                postings.computeIfAbsent(trigram(folded, i), key -> new Postings()).add(slot);
+            }
+        }
+
+        void remove(long id) {
+            deleted.add(id);
+            Integer slot = slotById.remove(id);
+            if (slot == null) {
+                return;
+            }
+            // Tombstone the slot; its postings are dropped at the next compaction
+            names[slot] = null;
+            foldedNames[slot] = null;
+            prices[slot] = null;
+            deletedCount++;
+            if (deletedCount > 1024 && deletedCount > slotCount / 2) {
+                compact();
+            }
+        }
+
+        int liveCount() {
+            return slotCount - deletedCount;
+        }
+
+        List<ProductResponse> search(String folded, int limit) {
+            PriorityQueue<Match> best = new PriorityQueue<>(RANKING.reversed());
+            if (folded.length() < 3) {
+                // Too short to have a trigram; a linear scan over folded names is still fast
+                for (int slot = 0; slot < slotCount; slot++) {
+                    offer(best, slot, folded, limit);
+                }
+            } else {
+                Postings[] lists = postingsFor(folded);
+                if (lists == null) {
+                    return List.of();
+                }
+                Postings smallest = lists[0];
+                for (int i = 0; i < smallest.size; i++) {
+                    int slot = smallest.slots[i];
+                    if (inAll(lists, slot)) {
+                        offer(best, slot, folded, limit);
+                    }
+                }
+            }
+
+            List<Match> ranked = new ArrayList<>(best);
+            ranked.sort(RANKING);
+            List<ProductResponse> results = new ArrayList<>(ranked.size());
+            for (Match match : ranked) {
+                results.add(new ProductResponse(ids[match.slot()], names[match.slot()], prices[match.slot()]));
+            }
+            return results;
+        }
+
+        // Returns the posting lists of all trigrams in the query, smallest first, or null if one is missing
+        private Postings[] postingsFor(String folded) {
+            Postings[] lists = new Postings[folded.length() - 2];
+            for (int i = 0; i < lists.length; i++) {
+                Postings list = postings.get(trigram(folded, i));
+                if (list == null) {
+                    return null;
+                }
+                lists[i] = list;
+            }
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+            return lists;
+        }
+
+        private static boolean inAll(Postings[] lists, int slot) {
+            for (int i = 1; i < lists.length; i++) {
+                if (!lists[i].contains(slot)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Trigram hits can be false positives (trigrams in the wrong order), so verify the substring
+        private void offer(PriorityQueue<Match> best, int slot, String folded, int limit) {
+            String name = foldedNames[slot];
+            if (name == null || !name.contains(folded)) {
+                return;
+            }
+            int rank = name.equals(folded) ? 0 : name.startsWith(folded) ? 1 : 2;
+            Match match = new Match(slot, rank, name.length(), ids[slot]);
+            if (best.size() < limit) {
+                best.offer(match);
+            } else if (RANKING.compare(match, best.peek()) < 0) {
+                best.poll();
+                best.offer(match);
+            }
+        }
+
+        private void compact() {
+            Documents compacted = new Documents();
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (names[slot] != null) {
+                    compacted.upsert(ids[slot], names[slot], prices[slot], versions[slot]);
+                }
+            }
+            ids = compacted.ids;
+            names = compacted.names;
+            foldedNames = compacted.foldedNames;
+            prices = compacted.prices;
+            versions = compacted.versions;
+            slotCount = compacted.slotCount;
+            deletedCount = 0;
+            slotById.clear();
+            slotById.putAll(compacted.slotById);
+            postings.clear();
+            postings.putAll(compacted.postings);
+        }
+    }
+
+    // Growable, sorted list of document slots
+    private static final class Postings {
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            // A name can contain the same trigram twice; slots arrive in order so duplicates are adjacent
+            if (size > 0 && slots[size - 1] == slot) {
+                return;
+            }
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        boolean contains(int slot) {
+            return Arrays.binarySearch(slots, 0, size, slot) >= 0;
+        }
+    }
+}
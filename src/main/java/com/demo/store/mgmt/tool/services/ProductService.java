@@ -1,83 +1,364 @@
 package com.demo.store.mgmt.tool.services;
 
 import com.demo.store.mgmt.tool.controllers.ProductController;
+import com.demo.store.mgmt.tool.cache.ProductCache;
 import com.demo.store.mgmt.tool.dto.AddProductRequest;
+import com.demo.store.mgmt.tool.dto.AppliedPriceChange;
+import com.demo.store.mgmt.tool.dto.BulkPriceUpdateResponse;
+import com.demo.store.mgmt.tool.dto.PriceChange;
+import com.demo.store.mgmt.tool.dto.ProductBatchResponse;
+import com.demo.store.mgmt.tool.dto.ProductPage;
+import com.demo.store.mgmt.tool.dto.ProductResponse;
+import com.demo.store.mgmt.tool.dto.ProductSnapshot;
+import com.demo.store.mgmt.tool.dto.RejectedPriceChange;
+import com.demo.store.mgmt.tool.events.ProductChangedEvent;
 import com.demo.store.mgmt.tool.exception.ConcurrencyConflictException;
 import com.demo.store.mgmt.tool.exception.ProductNotFoundException;
 import com.demo.store.mgmt.tool.exception.ProductValidationException;
+import com.demo.store.mgmt.tool.exception.ProductVersionMismatchException;
 import com.demo.store.mgmt.tool.models.Product;
 import com.demo.store.mgmt.tool.repositories.ProductRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.OptimisticLockException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
+@Timed(value = "store.product.service", percentiles = {0.5, 0.95, 0.99}, histogram = true)
 public class ProductService {
     private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int MAX_BULK_PRICE_CHANGES = 50_000;
+    // Ids travel in the query string, so keep the URL well under Tomcat's 8 KB header limit
+    public static final int MAX_BATCH_LOOKUP = 200;
+    private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+    // Largest value a NUMERIC(10, 2) price column holds
+    public static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+    // Scale of the NUMERIC(10, 2) price column
+    static final int PRICE_SCALE = 2;
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductSearchIndex searchIndex;
+    private final ProductCache productCache;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository,
+                          ApplicationEventPublisher eventPublisher,
+                          ProductSearchIndex searchIndex,
+                          ProductCache productCache) {
         this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+        this.searchIndex = searchIndex;
+        this.productCache = productCache;
     }
 
     public Product addProduct(AddProductRequest productRequest) {
         Product newProduct = new Product();
         newProduct.setName(productRequest.name());
-        newProduct.setPrice(productRequest.price());
-        return productRepository.save(newProduct);
+        newProduct.setPrice(normalizePrice(productRequest.price()));
+        Product savedProduct = productRepository.save(newProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.created(savedProduct));
+        return savedProduct;
+    }
+
+    // SUPPORTS: a cache hit must not open a transaction (and check out a connection);
+    // on a miss the repository runs its own read-only transaction
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<ProductSnapshot> findProductById(Long id) {
+        ProductSnapshot cached = productCache.getById(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<ProductSnapshot> loaded = productRepository.findSnapshotById(id);
+        loaded.ifPresent(productCache::putIfNewer);
+        return loaded;
+    }
+
+    // Enough to answer a conditional GET without loading the product
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<Long> findProductVersion(Long id) {
+        ProductSnapshot cached = productCache.getById(id);
+        if (cached != null) {
+            return Optional.ofNullable(cached.version());
+        }
+        return productRepository.findVersionById(id);
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<ProductSnapshot> findProductByName(String name) {
+        ProductSnapshot cached = productCache.getByName(name);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<ProductSnapshot> loaded = productRepository.findSnapshotByName(name);
+        loaded.ifPresent(productCache::putIfNewer);
+        return loaded;
+    }
+
+    // Cached products are served from the cache; the rest are read with one IN query.
+    // Repeated ids are answered once.
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ProductBatchResponse findProductsByIds(List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_LOOKUP) {
+            throw new ProductValidationException("Between 1 and " + MAX_BATCH_LOOKUP + " product ids are required");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new ProductValidationException("Product ids must be numbers");
+        }
+        LinkedHashSet<Long> requested = new LinkedHashSet<>(ids);
+        Map<Long, ProductSnapshot> found = new HashMap<>(requested.size());
+        List<Long> misses = new ArrayList<>();
+        for (Long id : requested) {
+            ProductSnapshot cached = productCache.getById(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            for (ProductSnapshot loaded : productRepository.findSnapshotsByIdIn(misses)) {
+                productCache.putIfNewer(loaded);
+                found.put(loaded.id(), loaded);
+            }
+        }
+
+        List<ProductResponse> products = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            ProductSnapshot snapshot = found.get(id);
+            if (snapshot != null) {
+                products.add(snapshot.toResponse());
+            } else {
+                missing.add(id);
+            }
+        }
+        return new ProductBatchResponse(products, missing);
     }
 
     @Transactional(readOnly = true)
-    public Optional<Product> findProductById(Long id) {
-        return productRepository.findById(id);
+    public ProductPage findProductsPage(String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ProductValidationException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        // Fetch one extra row so we know whether there is a next page without a count query
+        List<ProductResponse> rows = productRepository.findPageAfter(decodeCursor(cursor), PageRequest.of(0, size + 1));
+        if (rows.size() <= size) {
+            return new ProductPage(rows, null);
+        }
+        List<ProductResponse> items = new ArrayList<>(rows.subList(0, size));
+        return new ProductPage(items, encodeCursor(items.get(size - 1).id()));
     }
 
     @Transactional(readOnly = true)
-    public Optional<Product> findProductByName(String name) {
-        return productRepository.findByName(name);
+    public void streamAllProducts(Consumer<ProductResponse> consumer) {
+        try (Stream<ProductResponse> products = productRepository.streamAll()) {
+            products.forEach(consumer);
+        }
     }
 
     @Transactional(readOnly = true)
-    public List<Product> findAllProducts() {
-        return productRepository.findAll();
+    public List<ProductResponse> findProductsByNameContaining(String name, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ProductValidationException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (searchIndex.isReady()) {
+            return searchIndex.search(name, limit);
+        }
+        // Only until the index has been built at startup
+        return productRepository.searchByNameContaining(name, PageRequest.of(0, limit));
     }
 
+    // e.g. the cheapest N products between two prices: sort "price" or "name", direction "asc" or "desc"
     @Transactional(readOnly = true)
-    public List<Product> findProductsByNameContaining(String name) {
-        return productRepository.findByNameContaining(name);
+    public List<ProductResponse> findProductsByPrice(BigDecimal minPrice, BigDecimal maxPrice,
+                                                     String sort, String direction, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ProductValidationException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        BigDecimal min = minPrice != null ? minPrice : BigDecimal.ZERO;
+        BigDecimal max = maxPrice != null ? maxPrice : MAX_PRICE;
+        if (min.compareTo(max) > 0) {
+            throw new ProductValidationException("minPrice must not be greater than maxPrice");
+        }
+        return productRepository.findByPriceBetween(min, max, PageRequest.of(0, limit, productSort(sort, direction)));
     }
 
     public Product changeProductPrice(Long id, BigDecimal newPrice) {
-        if (newPrice == null || newPrice.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new ProductValidationException("New price must be greater than zero");
-        }
+        return changeProductPrice(id, newPrice, null);
+    }
+
+    // expectedVersion (from If-Match) must equal the current version; the @Version check at
+    // flush then guarantees nobody else got in between
+    public Product changeProductPrice(Long id, BigDecimal requestedPrice, Long expectedVersion) {
+        BigDecimal newPrice = normalizePrice(requestedPrice);
+        requireValidPrice(newPrice);
         try {
             Optional<Product> productOpt = productRepository.findById(id);
             if (productOpt.isEmpty()) {
                 throw new ProductNotFoundException(id);
             }
             Product product = productOpt.get();
+            if (expectedVersion != null && !expectedVersion.equals(product.getVersion())) {
+                throw new ProductVersionMismatchException(id);
+            }
+            BigDecimal previousPrice = product.getPrice();
             product.setPrice(newPrice);
-            return productRepository.save(product);
-        } catch (OptimisticLockException ex) {
+            // Flush now so a version conflict surfaces here and the event carries the new version
+            Product savedProduct = productRepository.saveAndFlush(product);
+            eventPublisher.publishEvent(ProductChangedEvent.priceChanged(savedProduct, previousPrice));
+            return savedProduct;
+        } catch (OptimisticLockException | ObjectOptimisticLockingFailureException ex) {
             logger.error(ex.getMessage());
             // Log the error and rethrow as a domain-specific exception if needed
             throw new ConcurrencyConflictException("Conflict occurred updating product " + id);
         }
     }
 
+    // Reprices many products in one transaction: one IN query to resolve the rows, then one
+    // batched UPDATE ... WHERE id = ? AND version = ?. Bad rows are reported, not fatal.
+    public BulkPriceUpdateResponse changeProductPrices(List<PriceChange> changes) {
+        if (changes.size() > MAX_BULK_PRICE_CHANGES) {
+            throw new ProductValidationException("At most " + MAX_BULK_PRICE_CHANGES + " price changes per request");
+        }
+        List<AppliedPriceChange> applied = new ArrayList<>();
+        List<RejectedPriceChange> rejected = new ArrayList<>();
+
+        List<PriceChange> valid = new ArrayList<>(changes.size());
+        for (PriceChange change : changes) {
+            if (change == null) {
+                rejected.add(new RejectedPriceChange(null, RejectedPriceChange.Reason.NOT_FOUND, "Price change is required"));
+                continue;
+            }
+            if (change.id() == null) {
+                rejected.add(new RejectedPriceChange(null, RejectedPriceChange.Reason.NOT_FOUND, "Product id is required"));
+                continue;
+            }
+            // Same rounding and limits as a single price change
+            BigDecimal newPrice = normalizePrice(change.newPrice());
+            try {
+                requireValidPrice(newPrice);
+            } catch (ProductValidationException ex) {
+                rejected.add(new RejectedPriceChange(change.id(), RejectedPriceChange.Reason.INVALID_PRICE, ex.getMessage()));
+                continue;
+            }
+            valid.add(new PriceChange(change.id(), newPrice, change.expectedVersion()));
+        }
+
+        // Keep each IN list to a sane number of bind parameters
+        List<Long> ids = valid.stream().map(PriceChange::id).distinct().toList();
+        Map<Long, Product> current = new HashMap<>(ids.size());
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, ids.size()));
+            productRepository.findAllById(chunk).forEach(product -> current.put(product.getId(), product));
+        }
+        List<PriceChange> updates = new ArrayList<>(valid.size());
+        for (PriceChange change : valid) {
+            Product product = current.get(change.id());
+            if (product == null) {
+                rejected.add(new RejectedPriceChange(change.id(), RejectedPriceChange.Reason.NOT_FOUND,
+                        "Product not found with ID: " + change.id()));
+            } else {
+                Long expectedVersion = change.expectedVersion() != null ? change.expectedVersion() : product.getVersion();
+                updates.add(new PriceChange(change.id(), change.newPrice(), expectedVersion));
+            }
+        }
+
+        int[] counts = productRepository.updatePricesIfVersionMatches(updates);
+        for (int i = 0; i < updates.size(); i++) {
+            PriceChange update = updates.get(i);
+            if (counts[i] > 0) {
+                Long newVersion = update.expectedVersion() + 1;
+                applied.add(new AppliedPriceChange(update.id(), update.newPrice(), newVersion));
+                Product before = current.get(update.id());
+                eventPublisher.publishEvent(ProductChangedEvent.priceChanged(
+                        update.id(), before.getName(), update.newPrice(), newVersion, before.getPrice()));
+            } else {
+                rejected.add(new RejectedPriceChange(update.id(), RejectedPriceChange.Reason.VERSION_CONFLICT,
+                        "Product " + update.id() + " is no longer at version " + update.expectedVersion()));
+            }
+        }
+        logger.info("Bulk price update: {} applied, {} rejected", applied.size(), rejected.size());
+        return new BulkPriceUpdateResponse(applied, rejected);
+    }
+
     public void deleteProduct(Long id) {
-        productRepository.deleteById(id);
+        productRepository.findById(id).ifPresent(product -> {
+            productRepository.delete(product);
+            eventPublisher.publishEvent(ProductChangedEvent.deleted(product));
+        });
     }
 
     public long countProducts() {
         return productRepository.count();
     }
+
+    // Rounds like the database does when the row is written, so that the events, and with them the
+    // caches, the search index and the audit log, carry the price that was actually stored
+    static BigDecimal normalizePrice(BigDecimal price) {
+        return price == null ? null : price.setScale(PRICE_SCALE, RoundingMode.HALF_UP);
+    }
+
+    // Expects a normalized price: anything above MAX_PRICE doesn't fit the column
+    static void requireValidPrice(BigDecimal newPrice) {
+        if (newPrice == null || newPrice.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new ProductValidationException("New price must be greater than zero");
+        }
+        if (newPrice.compareTo(MAX_PRICE) > 0) {
+            throw new ProductValidationException("New price must be at most " + MAX_PRICE);
+        }
+    }
+
+    static Sort productSort(String sort, String direction) {
+        Sort.Direction order;
+        try {
+            order = Sort.Direction.fromString(direction);
+        } catch (IllegalArgumentException ex) {
+            throw new ProductValidationException("Sort direction must be asc or desc");
+        }
+        // id keeps the order stable between products with the same price
+        return switch (sort) {
+            case "price" -> Sort.by(order, "price").and(Sort.by(order, "id"));
+            case "name" -> Sort.by(order, "name");
+            default -> throw new ProductValidationException("Products can be sorted by price or name");
+        };
+    }
+
+    // The cursor is the last id of the previous page; encoded so clients treat it as opaque
+    static String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException ex) {
+            throw new ProductValidationException("Invalid page cursor");
+        }
+    }
 }
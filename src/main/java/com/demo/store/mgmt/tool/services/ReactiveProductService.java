@@ -0,0 +1,257 @@
+package com.demo.store.mgmt.tool.services;
+
+import com.demo.store.mgmt.tool.cache.ProductCache;
+import com.demo.store.mgmt.tool.dto.AddProductRequest;
+import com.demo.store.mgmt.tool.dto.ProductBatchResponse;
+import com.demo.store.mgmt.tool.dto.ProductPage;
+import com.demo.store.mgmt.tool.dto.ProductResponse;
+import com.demo.store.mgmt.tool.dto.ProductSnapshot;
+import com.demo.store.mgmt.tool.events.ProductChangedEvent;
+import com.demo.store.mgmt.tool.exception.ConcurrencyConflictException;
+import com.demo.store.mgmt.tool.exception.ProductNotFoundException;
+import com.demo.store.mgmt.tool.exception.ProductValidationException;
+import com.demo.store.mgmt.tool.exception.ProductVersionMismatchException;
+import com.demo.store.mgmt.tool.models.Product;
+import com.demo.store.mgmt.tool.repositories.ReactiveProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+// ProductService for the reactive profile: the same rules and the same cache, search index and
+// change events, over R2DBC. Each statement commits on its own, so events are published once it
+// has completed (listeners accept them without a transaction, see ProductChangedEvent).
+//
+// Single price updates retry version conflicts with backoff like PriceUpdateCoordinator does
+// (same store.price-update settings), but are never coalesced.
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveProductService {
+
+    private final ReactiveProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductSearchIndex searchIndex;
+    private final ProductCache productCache;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Counter retries;
+    private final Counter conflicts;
+
+    public ReactiveProductService(ReactiveProductRepository productRepository,
+                                  ApplicationEventPublisher eventPublisher,
+                                  ProductSearchIndex searchIndex,
+                                  ProductCache productCache,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${store.price-update.max-attempts:3}") int maxAttempts,
+                                  @Value("${store.price-update.initial-backoff:10ms}") Duration initialBackoff,
+                                  @Value("${store.price-update.max-backoff:200ms}") Duration maxBackoff) {
+        this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+        this.searchIndex = searchIndex;
+        this.productCache = productCache;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.retries = Counter.builder("store.product.price.retries")
+                .description("Price updates retried after a version conflict")
+                .register(meterRegistry);
+        this.conflicts = Counter.builder("store.product.price.conflicts")
+                .description("Price updates that still conflicted after all retries")
+                .register(meterRegistry);
+    }
+
+    public Mono<Product> addProduct(AddProductRequest productRequest) {
+        BigDecimal price = ProductService.normalizePrice(productRequest.price());
+        return productRepository.nextId()
+                .flatMap(id -> productRepository.insert(id, productRequest.name(), price)
+                        .then(Mono.fromSupplier(() -> new Product(id, productRequest.name(), price, 0L))))
+                .flatMap(product -> publish(ProductChangedEvent.created(product)).thenReturn(product));
+    }
+
+    public Mono<ProductSnapshot> findProductById(Long id) {
+        ProductSnapshot cached = productCache.getById(id);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return productRepository.findSnapshotById(id).doOnNext(productCache::putIfNewer);
+    }
+
+    // Cached products are served from the cache; the rest are read with one IN query.
+    // Repeated ids are answered once.
+    public Mono<ProductBatchResponse> findProductsByIds(List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > ProductService.MAX_BATCH_LOOKUP) {
+            return Mono.error(new ProductValidationException(
+                    "Between 1 and " + ProductService.MAX_BATCH_LOOKUP + " product ids are required"));
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            return Mono.error(new ProductValidationException("Product ids must be numbers"));
+        }
+        LinkedHashSet<Long> requested = new LinkedHashSet<>(ids);
+        Map<Long, ProductSnapshot> found = new HashMap<>(requested.size());
+        List<Long> misses = new ArrayList<>();
+        for (Long id : requested) {
+            ProductSnapshot cached = productCache.getById(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                misses.add(id);
+            }
+        }
+        Flux<ProductSnapshot> loaded = misses.isEmpty() ? Flux.empty() : productRepository.findSnapshotsByIdIn(misses);
+        return loaded
+                .doOnNext(snapshot -> {
+                    productCache.putIfNewer(snapshot);
+                    found.put(snapshot.id(), snapshot);
+                })
+                .then(Mono.fromSupplier(() -> {
+                    List<ProductResponse> products = new ArrayList<>(found.size());
+                    List<Long> missing = new ArrayList<>();
+                    for (Long id : requested) {
+                        ProductSnapshot snapshot = found.get(id);
+                        if (snapshot != null) {
+                            products.add(snapshot.toResponse());
+                        } else {
+                            missing.add(id);
+                        }
+                    }
+                    return new ProductBatchResponse(products, missing);
+                }));
+    }
+
+    public Mono<ProductPage> findProductsPage(String cursor, int size) {
+        if (size < 1 || size > ProductService.MAX_PAGE_SIZE) {
+            return Mono.error(new ProductValidationException(
+                    "Page size must be between 1 and " + ProductService.MAX_PAGE_SIZE));
+        }
+        // One extra row tells whether there is a next page, as in ProductService
+        return Mono.fromCallable(() -> ProductService.decodeCursor(cursor))
+                .flatMap(afterId -> productRepository.findPageAfter(afterId, size + 1).collectList())
+                .map(rows -> {
+                    if (rows.size() <= size) {
+                        return new ProductPage(rows, null);
+                    }
+                    List<ProductResponse> items = new ArrayList<>(rows.subList(0, size));
+                    return new ProductPage(items, ProductService.encodeCursor(items.get(size - 1).id()));
+                });
+    }
+
+    public Flux<ProductResponse> streamAllProducts() {
+        return productRepository.streamAll();
+    }
+
+    public Flux<ProductResponse> findProductsByNameContaining(String name, int limit) {
+        if (limit < 1 || limit > ProductService.MAX_PAGE_SIZE) {
+            return Flux.error(new ProductValidationException(
+                    "Limit must be between 1 and " + ProductService.MAX_PAGE_SIZE));
+        }
+        if (searchIndex.isReady()) {
+            // In memory, no I/O
+            return Flux.fromIterable(searchIndex.search(name, limit));
+        }
+        return productRepository.searchByNameContaining(name, limit);
+    }
+
+    public Flux<ProductResponse> findProductsByPrice(BigDecimal minPrice, BigDecimal maxPrice,
+                                                     String sort, String direction, int limit) {
+        if (limit < 1 || limit > ProductService.MAX_PAGE_SIZE) {
+            return Flux.error(new ProductValidationException(
+                    "Limit must be between 1 and " + ProductService.MAX_PAGE_SIZE));
+        }
+        BigDecimal min = minPrice != null ? minPrice : BigDecimal.ZERO;
+        BigDecimal max = maxPrice != null ? maxPrice : ProductService.MAX_PRICE;
+        if (min.compareTo(max) > 0) {
+            return Flux.error(new ProductValidationException("minPrice must not be greater than maxPrice"));
+        }
+        return Mono.fromCallable(() -> ProductService.productSort(sort, direction))
+                .flatMapMany(order -> productRepository.findByPriceBetween(min, max, order, limit));
+    }
+
+    // With an expected version (If-Match) a conflict is the caller's answer; without one it is retried
+    public Mono<Product> changeProductPrice(Long id, BigDecimal requestedPrice, Long expectedVersion) {
+        BigDecimal newPrice = ProductService.normalizePrice(requestedPrice);
+        Mono<Product> write = Mono.defer(() -> {
+            ProductService.requireValidPrice(newPrice);
+            return writePrice(id, newPrice, expectedVersion);
+        });
+        if (expectedVersion != null) {
+            return write;
+        }
+        return write.retryWhen(Retry.backoff(maxAttempts - 1, initialBackoff)
+                .maxBackoff(maxBackoff)
+                .filter(ConcurrencyConflictException.class::isInstance)
+                .doBeforeRetry(signal -> retries.increment())
+                .onRetryExhaustedThrow((spec, signal) -> {
+                    conflicts.increment();
+                    return signal.failure();
+                }));
+    }
+
+    public Mono<Void> deleteProduct(Long id) {
+        return productRepository.findSnapshotById(id)
+                .flatMap(product -> productRepository.deleteById(id)
+                        .filter(deleted -> deleted > 0)
+                        .flatMap(deleted -> publish(ProductChangedEvent.deleted(
+                                new Product(product.id(), product.name(), product.price(), product.version())))))
+                .then();
+    }
+
+    public Mono<Long> countProducts() {
+        return productRepository.count();
+    }
+
+    // Listeners run on this thread and some read the caller from SecurityContextHolder (the audit
+    // log records who changed a price), so the request's context is installed around the call
+    private Mono<Void> publish(ProductChangedEvent event) {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .doOnNext(context -> {
+                    context.ifPresent(SecurityContextHolder::setContext);
+                    try {
+                        eventPublisher.publishEvent(event);
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                })
+                .then();
+    }
+
+    // Reads the current row rather than the cache: the update is conditional on its version
+    private Mono<Product> writePrice(Long id, BigDecimal newPrice, Long expectedVersion) {
+        return productRepository.findSnapshotById(id)
+                .switchIfEmpty(Mono.error(() -> new ProductNotFoundException(id)))
+                .flatMap(current -> {
+                    if (expectedVersion != null && !expectedVersion.equals(current.version())) {
+                        return Mono.error(new ProductVersionMismatchException(id));
+                    }
+                    return productRepository.updatePriceIfVersionMatches(id, newPrice, current.version())
+                            .flatMap(updated -> {
+                                if (updated == 0) {
+                                    return Mono.error(new ConcurrencyConflictException(
+                                            "Conflict occurred updating product " + id));
+                                }
+                                Product saved = new Product(id, current.name(), newPrice, current.version() + 1);
+                                return publish(ProductChangedEvent.priceChanged(saved, current.price()))
+                                        .thenReturn(saved);
+                            });
+                });
+    }
+}
@@ -0,0 +1,52 @@
+package com.demo.store.mgmt.tool.services;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Objects;
+
+// UserService for the reactive profile: one R2DBC query for the user and its authorities.
+// An unknown user completes empty, which the authentication manager turns into bad credentials.
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserService implements ReactiveUserDetailsService {
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveUserService(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        return databaseClient.sql("SELECT u.password, u.enabled, a.authority FROM users u "
+                        + "LEFT JOIN authorities a ON a.username = u.username WHERE u.username = :username")
+                .bind("username", username)
+                .map(row -> new UserRow(row.get(0, String.class), Boolean.TRUE.equals(row.get(1, Boolean.class)),
+                        row.get(2, String.class)))
+                .all()
+                .collectList()
+                .filter(rows -> !rows.isEmpty())
+                .map(rows -> toUserDetails(username, rows));
+    }
+
+    private static UserDetails toUserDetails(String username, List<UserRow> rows) {
+        UserRow first = rows.get(0);
+        return org.springframework.security.core.userdetails.User.builder()
+                .username(username)
+                .password(first.password()) // Password is already hashed in the DB
+                .authorities(rows.stream()
+                        .map(UserRow::authority)
+                        .filter(Objects::nonNull)
+                        .toArray(String[]::new))
+                .disabled(!first.enabled())
+                .build();
+    }
+
+    private record UserRow(String password, boolean enabled, String authority) {}
+}
@@ -0,0 +1,80 @@
+package com.demo.store.mgmt.tool.services;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// On-hand and reserved units of one product packed into a single AtomicLong (on hand in the high
+// 32 bits, reserved in the low 32), so a reservation checks availability and takes the units in
+// one compare-and-set. Nothing ever blocks, and there is no moment at which two checkouts can both
+// see the last unit as free.
+final class StockCounter {
+
+    private static final long LOW_BITS = 0xFFFFFFFFL;
+
+    private final AtomicLong state;
+
+    // What the database row holds as far as we know; only touched by the write-behind thread
+    long persistedOnHand;
+    // -1 while there is no row yet
+    long persistedVersion;
+
+    StockCounter(long onHand, long persistedVersion) {
+        this.state = new AtomicLong(pack(Math.toIntExact(onHand), 0));
+        this.persistedOnHand = onHand;
+        this.persistedVersion = persistedVersion;
+    }
+
+    boolean tryReserve(int quantity) {
+        while (true) {
+            long current = state.get();
+            int onHand = onHand(current);
+            int reserved = reserved(current);
+            if (onHand - reserved < quantity) {
+                return false;
+            }
+            if (state.compareAndSet(current, pack(onHand, reserved + quantity))) {
+                return true;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    void release(int quantity) {
+        state.updateAndGet(current -> pack(onHand(current), reserved(current) - quantity));
+    }
+
+    // The reserved units leave the building
+    void commit(int quantity) {
+        state.updateAndGet(current -> pack(onHand(current) - quantity, reserved(current) - quantity));
+    }
+
+    // Restocks, and corrections found while reconciling with the database; may be negative
+    void addOnHand(long delta) {
+        state.updateAndGet(current -> pack(Math.toIntExact(onHand(current) + delta), reserved(current)));
+    }
+
+    long onHand() {
+        return onHand(state.get());
+    }
+
+    long reserved() {
+        return reserved(state.get());
+    }
+
+    // On hand and reserved from one read, so they always agree
+    long[] snapshot() {
+        long current = state.get();
+        return new long[]{onHand(current), reserved(current)};
+    }
+
+    private static long pack(int onHand, int reserved) {
+        return ((long) onHand << 32) | (reserved & LOW_BITS);
+    }
+
+    private static int onHand(long state) {
+        return (int) (state >> 32);
+    }
+
+    private static int reserved(long state) {
+        return (int) state;
+    }
+}
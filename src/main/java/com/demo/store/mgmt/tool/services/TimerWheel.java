@@ -0,0 +1,111 @@
+package com.demo.store.mgmt.tool.services;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Hashed timer wheel: time is cut into ticks and a deadline goes into bucket (tick & mask), so
+// scheduling is O(1) and each tick only looks at one bucket instead of a queue sorted over
+// everything pending. Deadlines more than one turn away share the bucket and are skipped until
+// their turn comes round.
+//
+// schedule() may be called from any thread: it only adds to a lock-free queue. Everything else
+// belongs to the single thread that calls advance(), which moves queued timers into the buckets
+// and collects the ones that are due.
+final class TimerWheel<T> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final List<Timer<T>>[] buckets;
+    private final Queue<Timer<T>> incoming = new ConcurrentLinkedQueue<>();
+    // Timers already due when they reach the wheel, handed out on the next advance
+    private final List<Timer<T>> overdue = new ArrayList<>();
+    private long currentTick;
+    // Only written by the advancing thread; volatile so metrics can read it
+    private volatile int size;
+
+    @SuppressWarnings("unchecked")
+    TimerWheel(long tickMillis, int wheelSize, long nowMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Tick must be positive and wheel size a power of two");
+        }
+        this.tickMillis = tickMillis;
+        this.mask = wheelSize - 1;
+        this.buckets = new List[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    void schedule(long deadlineMillis, T payload) {
+        incoming.add(timer(deadlineMillis, payload));
+    }
+
+    // Everything due at or before nowMillis, in deadline order
+    List<T> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<Timer<T>> due = new ArrayList<>(overdue);
+        overdue.clear();
+        drainIncoming(targetTick, due);
+
+        // After a long pause every bucket is visited once rather than once per missed tick
+        long ticks = Math.min(targetTick - currentTick, buckets.length);
+        for (long tick = currentTick + 1; tick <= currentTick + ticks; tick++) {
+            Iterator<Timer<T>> it = buckets[(int) (tick & mask)].iterator();
+            while (it.hasNext()) {
+                Timer<T> timer = it.next();
+                if (timer.tick() <= targetTick) {
+                    it.remove();
+                    due.add(timer);
+                }
+            }
+        }
+        currentTick = Math.max(currentTick, targetTick);
+        size -= due.size();
+
+        due.sort((a, b) -> Long.compare(a.deadlineMillis(), b.deadlineMillis()));
+        List<T> payloads = new ArrayList<>(due.size());
+        for (Timer<T> timer : due) {
+            payloads.add(timer.payload());
+        }
+        return payloads;
+    }
+
+    // Timers in the wheel, not counting those still queued by schedule()
+    int size() {
+        return size;
+    }
+
+    private void drainIncoming(long targetTick, List<Timer<T>> due) {
+        Timer<T> timer;
+        while ((timer = incoming.poll()) != null) {
+            size++;
+            if (timer.tick() <= targetTick) {
+                due.add(timer);
+            } else {
+                buckets[(int) (timer.tick() & mask)].add(timer);
+            }
+        }
+    }
+
+    // Timers are re-queued by callers that could not process them yet
+    void reschedule(long deadlineMillis, T payload) {
+        Timer<T> timer = timer(deadlineMillis, payload);
+        size++;
+        if (timer.tick() <= currentTick) {
+            overdue.add(timer);
+        } else {
+            buckets[(int) (timer.tick() & mask)].add(timer);
+        }
+    }
+
+    // The tick is rounded up, so a timer never fires before its deadline
+    private Timer<T> timer(long deadlineMillis, T payload) {
+        return new Timer<>(deadlineMillis, Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), payload);
+    }
+
+    private record Timer<T>(long deadlineMillis, long tick, T payload) {}
+}
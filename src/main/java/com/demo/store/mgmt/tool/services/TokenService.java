@@ -0,0 +1,47 @@
+package com.demo.store.mgmt.tool.services;
+
+import com.demo.store.mgmt.tool.config.security.TokenConfig;
+import com.demo.store.mgmt.tool.dto.TokenResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@Service
+public class TokenService {
+
+    private final JwtEncoder jwtEncoder;
+    private final Duration ttl;
+
+    public TokenService(JwtEncoder jwtEncoder, @Value("${store.security.token.ttl:15m}") Duration ttl) {
+        this.jwtEncoder = jwtEncoder;
+        this.ttl = ttl;
+    }
+
+    // Roles are copied into the token, so a role change only takes effect once the token expires
+    public TokenResponse issue(Authentication authentication) {
+        Instant now = Instant.now();
+        List<String> roles = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer(TokenConfig.ISSUER)
+                .subject(authentication.getName())
+                .issuedAt(now)
+                .expiresAt(now.plus(ttl))
+                .claim(TokenConfig.ROLES_CLAIM, roles)
+                .build();
+        String token = jwtEncoder.encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims))
+                .getTokenValue();
+        return new TokenResponse(token, "Bearer", ttl.toSeconds());
+    }
+}
@@ -0,0 +1,44 @@
+package com.demo.store.mgmt.tool.snapshot;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Restore mode: --store.snapshot.restore-from=<file> loads a snapshot before the application
+// reports ready, so the caches, price book and search index are built from the restored catalog.
+// A missing or corrupt file fails the start rather than serving an empty catalog.
+@Component
+@ConditionalOnProperty("store.snapshot.restore-from")
+public class CatalogRestoreRunner implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(CatalogRestoreRunner.class);
+
+    private final CatalogSnapshotService snapshotService;
+    private final Path source;
+
+    public CatalogRestoreRunner(CatalogSnapshotService snapshotService,
+                                @Value("${store.snapshot.restore-from}") Path source) {
+        this.snapshotService = snapshotService;
+        this.source = source;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (!Files.isRegularFile(source)) {
+            throw new IllegalStateException("store.snapshot.restore-from: no such file " + source.toAbsolutePath());
+        }
+        // A persistent database that already holds a catalog is left alone
+        if (snapshotService.hasProducts()) {
+            logger.warn("Catalog is not empty, not restoring {}", source);
+            return;
+        }
+        snapshotService.restore(source);
+    }
+}
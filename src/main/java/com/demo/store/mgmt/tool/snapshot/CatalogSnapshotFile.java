@@ -0,0 +1,231 @@
+package com.demo.store.mgmt.tool.snapshot;
+
+import com.demo.store.mgmt.tool.dto.ProductSnapshot;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+// Columnar snapshot of the products table: every id, then every price, every version and every
+// name, each column as a run of variable-length integers so that small numbers take one byte.
+//
+//   ids      delta from the previous id (rows are written in id order, so always positive)
+//   prices   price in cents, zigzag delta from the previous price, so a cheaper row costs as
+//            little as a dearer one
+//   versions as is; most rows are at a low version
+//   names    UTF-8, front-coded: bytes shared with the previous name, then the rest. Names are
+//            unique, so a dictionary of whole names would hold every name once and save nothing;
+//            sharing prefixes with the neighbour is what catalogs loaded in batches have in common.
+//
+// Layout (little-endian): HEADER_SIZE bytes of magic, format, row count and, per column, its length
+// and CRC32, followed by the columns in the order above. The file is written to a temporary name
+// and moved into place, so a reader never sees half a snapshot.
+public final class CatalogSnapshotFile {
+
+    static final int MAGIC = 0x504E5343; // "CSNP"
+    static final int FORMAT = 1;
+    private static final int COLUMNS = 4;
+    static final int HEADER_SIZE = 16 + COLUMNS * 12;
+    private static final int PRICE_SCALE = 2;
+
+    private CatalogSnapshotFile() {
+    }
+
+    // Rows must come in ascending id order, as ProductRepository.streamSnapshots returns them
+    public static long write(Path target, Iterator<ProductSnapshot> products) throws IOException {
+        Column ids = new Column();
+        Column prices = new Column();
+        Column versions = new Column();
+        Column names = new Column();
+        long rows = 0;
+        long previousId = 0;
+        long previousCents = 0;
+        byte[] previousName = new byte[0];
+        while (products.hasNext()) {
+            ProductSnapshot product = products.next();
+            if (product.id() <= previousId) {
+                throw new IllegalArgumentException("Products must be in ascending id order, got " + product.id()
+                        + " after " + previousId);
+            }
+            ids.writeVarLong(product.id() - previousId);
+            previousId = product.id();
+
+            long cents = product.price().setScale(PRICE_SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+            prices.writeVarLong(zigzag(cents - previousCents));
+            previousCents = cents;
+
+            versions.writeVarLong(product.version() != null ? product.version() : 0L);
+
+            byte[] name = product.name().getBytes(StandardCharsets.UTF_8);
+            int shared = Arrays.mismatch(previousName, name);
+            if (shared < 0) {
+                shared = name.length; // same as the previous name; can't happen with unique names
+            }
+            names.writeVarLong(shared);
+            names.writeVarLong(name.length - shared);
+            names.write(name, shared, name.length - shared);
+            previousName = name;
+            rows++;
+        }
+
+        Column[] columns = {ids, prices, versions, names};
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(FORMAT).putLong(rows);
+        for (Column column : columns) {
+            header.putLong(column.size()).putInt(column.crc());
+        }
+        header.flip();
+        ByteBuffer[] buffers = new ByteBuffer[COLUMNS + 1];
+        buffers[0] = header;
+        long remaining = HEADER_SIZE;
+        for (int i = 0; i < COLUMNS; i++) {
+            buffers[i + 1] = columns[i].buffer();
+            remaining += columns[i].size();
+        }
+
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (remaining > 0) {
+                remaining -= channel.write(buffers);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return rows;
+    }
+
+    // Maps the file and decodes the four columns side by side, handing out one row at a time
+    public static long read(Path source, Consumer<ProductSnapshot> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a catalog snapshot: " + source);
+            }
+            MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            file.order(ByteOrder.LITTLE_ENDIAN);
+            if (file.getInt(0) != MAGIC) {
+                throw new IOException("Not a catalog snapshot: " + source);
+            }
+            if (file.getInt(4) != FORMAT) {
+                throw new IOException("Unsupported catalog snapshot format " + file.getInt(4) + ": " + source);
+            }
+            long rows = file.getLong(8);
+
+            ByteBuffer[] columns = new ByteBuffer[COLUMNS];
+            long offset = HEADER_SIZE;
+            for (int i = 0; i < COLUMNS; i++) {
+                long length = file.getLong(16 + i * 12);
+                int crc = file.getInt(24 + i * 12);
+                if (length < 0 || offset + length > size) {
+                    throw new IOException("Catalog snapshot is truncated: " + source);
+                }
+                columns[i] = file.slice((int) offset, (int) length);
+                if (crc(columns[i].duplicate()) != crc) {
+                    throw new IOException("Catalog snapshot column " + i + " is corrupt: " + source);
+                }
+                offset += length;
+            }
+
+            ByteBuffer ids = columns[0];
+            ByteBuffer prices = columns[1];
+            ByteBuffer versions = columns[2];
+            ByteBuffer names = columns[3];
+            long id = 0;
+            long cents = 0;
+            byte[] name = new byte[64];
+            for (long row = 0; row < rows; row++) {
+                id += readVarLong(ids);
+                cents += unzigzag(readVarLong(prices));
+                long version = readVarLong(versions);
+                int shared = (int) readVarLong(names);
+                int suffix = (int) readVarLong(names);
+                if (shared + suffix > name.length) {
+                    name = Arrays.copyOf(name, Math.max(name.length * 2, shared + suffix));
+                }
+                names.get(name, shared, suffix);
+                consumer.accept(new ProductSnapshot(id, new String(name, 0, shared + suffix, StandardCharsets.UTF_8),
+                        BigDecimal.valueOf(cents, PRICE_SCALE), version));
+            }
+            return rows;
+        }
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private static int crc(ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer);
+        return (int) crc.getValue();
+    }
+
+    // Growable byte array for one column; 7 bits per byte, high bit set while more bytes follow
+    static final class Column {
+        private byte[] bytes = new byte[4096];
+        private int size;
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void write(byte[] source, int from, int length) {
+            ensure(length);
+            System.arraycopy(source, from, bytes, size, length);
+            size += length;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int crc() {
+            return CatalogSnapshotFile.crc(buffer());
+        }
+
+        ByteBuffer buffer() {
+            return ByteBuffer.wrap(bytes, 0, size);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+    }
+}
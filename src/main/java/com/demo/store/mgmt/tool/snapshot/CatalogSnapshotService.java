@@ -0,0 +1,112 @@
+package com.demo.store.mgmt.tool.snapshot;
+
+import com.demo.store.mgmt.tool.dto.ProductSnapshot;
+import com.demo.store.mgmt.tool.dto.SnapshotReport;
+import com.demo.store.mgmt.tool.repositories.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Exports the catalog to a CatalogSnapshotFile and loads one back into an empty products table
+@Service
+public class CatalogSnapshotService {
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final Path directory;
+    private final int batchSize;
+
+    public CatalogSnapshotService(ProductRepository productRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${store.snapshot.directory:./data/snapshots}") Path directory,
+                                  @Value("${store.snapshot.batch-size:1000}") int batchSize) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.directory = directory;
+        this.batchSize = batchSize;
+    }
+
+    // One streamed SELECT, so the file is a consistent copy of the catalog at the time it started
+    public SnapshotReport export() throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+        Path target = directory.resolve("catalog-" + System.currentTimeMillis() + ".snap");
+        long rows;
+        try {
+            rows = readOnlyTransactionTemplate.execute(status -> {
+                try (Stream<ProductSnapshot> products = productRepository.streamSnapshots()) {
+                    return CatalogSnapshotFile.write(target, products.iterator());
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Exported {} products to {} in {} ms", rows, target, millis);
+        return new SnapshotReport(target.toAbsolutePath().toString(), rows, Files.size(target), millis);
+    }
+
+    public boolean hasProducts() {
+        return productRepository.count() > 0;
+    }
+
+    // All rows go in one transaction, so a failed restore leaves the table empty. Rows keep their
+    // ids and versions; no change events are published, which is why this only runs before the
+    // application is ready and the caches, price book and search index load from the table.
+    public long restore(Path source) throws IOException {
+        long existing = productRepository.count();
+        if (existing > 0) {
+            throw new IllegalStateException("Not restoring " + source + ": the catalog already has "
+                    + existing + " products");
+        }
+        long start = System.nanoTime();
+        long rows;
+        try {
+            rows = transactionTemplate.execute(status -> {
+                List<ProductSnapshot> batch = new ArrayList<>(batchSize);
+                long[] maxId = {0};
+                long count;
+                try {
+                    count = CatalogSnapshotFile.read(source, product -> {
+                        batch.add(product);
+                        maxId[0] = product.id();
+                        if (batch.size() == batchSize) {
+                            productRepository.insertSnapshots(batch);
+                            batch.clear();
+                        }
+                    });
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                if (!batch.isEmpty()) {
+                    productRepository.insertSnapshots(batch);
+                }
+                if (maxId[0] > 0) {
+                    productRepository.restartIdSequenceAfter(maxId[0]);
+                }
+                return count;
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        logger.info("Restored {} products from {} in {} ms", rows, source, (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+}
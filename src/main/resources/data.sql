@@ -1,8 +1,7 @@
+-- MERGE keeps this idempotent, so it can also run on every start of a persistent database
+MERGE INTO users (username, password, enabled) KEY (username) VALUES ('user', '$2a$10$eWCsj60sW/0GToigKXa42.1isOl.kpI9Kx6heIX3Mdi13719cpCIS', TRUE); -- Password: password
+MERGE INTO users (username, password, enabled) KEY (username) VALUES ('admin', '$2a$10$u6xD73xkMJorEkzJUdrvI.5tY71.pkkhg63Q13WUnU2.HNbnn4.fO', TRUE); -- Password: adminpass
 
-INSERT INTO users (username, password, enabled) VALUES ('user', '$2a$10$eWCsj60sW/0GToigKXa42.1isOl.kpI9Kx6heIX3Mdi13719cpCIS', TRUE); -- Password: password
-INSERT INTO users (username, password, enabled) VALUES ('admin', '$2a$10$u6xD73xkMJorEkzJUdrvI.5tY71.pkkhg63Q13WUnU2.HNbnn4.fO', TRUE); -- Password: adminpass
-
-INSERT INTO authorities (username, authority) VALUES ('user', 'ROLE_USER');
-INSERT INTO authorities (username, authority) VALUES ('admin', 'ROLE_ADMIN');
-INSERT INTO authorities (username, authority) VALUES ('admin', 'ROLE_USER');
-
+MERGE INTO authorities (username, authority) KEY (username, authority) VALUES ('user', 'ROLE_USER');
+MERGE INTO authorities (username, authority) KEY (username, authority) VALUES ('admin', 'ROLE_ADMIN');
+MERGE INTO authorities (username, authority) KEY (username, authority) VALUES ('admin', 'ROLE_USER');
@@ -0,0 +1,132 @@
+package com.demo.store.mgmt.tool.audit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PriceAuditLogTest {
+
+    @TempDir
+    Path directory;
+
+    private PriceAuditLog open(int recordsPerSegment, int queueCapacity) throws IOException {
+        return new PriceAuditLog(directory, recordsPerSegment, queueCapacity, Duration.ofMillis(10),
+                Duration.ofDays(1), Duration.ofHours(1), new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void testHistory_ReturnsOneProductsChangesInVersionOrder() throws IOException {
+        try (PriceAuditLog log = open(16, 100)) {
+            log.append(record(1L, 2L, null, "12.50", "admin"));
+            log.append(record(2L, 1L, "5.00", "6.00", "admin"));
+            log.append(record(1L, 1L, "10.00", "11.00", "system"));
+            log.flush();
+
+            List<PriceAuditRecord> history = log.history(1L);
+
+            assertThat(history).extracting(PriceAuditRecord::version).containsExactly(1L, 2L);
+            assertThat(history.get(0).oldPrice()).isEqualByComparingTo("10.00");
+            assertThat(history.get(0).newPrice()).isEqualByComparingTo("11.00");
+            assertThat(history.get(0).username()).isEqualTo("system");
+            assertThat(history.get(1).oldPrice()).isNull();
+            assertThat(log.history(3L)).isEmpty();
+        }
+    }
+
+    @Test
+    public void testFullSegments_RollOverAndSurviveRestart() throws IOException {
+        try (PriceAuditLog log = open(4, 100)) {
+            for (long version = 1; version <= 10; version++) {
+                log.append(record(1L, version, "1.00", "2.00", "admin"));
+            }
+            log.flush();
+            assertThat(log.segmentCount()).isEqualTo(3);
+        }
+
+        try (PriceAuditLog log = open(4, 100)) {
+            log.append(record(1L, 11L, "2.00", "3.00", "admin"));
+            log.flush();
+
+            assertThat(log.history(1L)).extracting(PriceAuditRecord::version)
+                    .containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L);
+            // The restarted log carried on in the partly written segment
+            assertThat(log.segmentCount()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    public void testHistory_KeepsSameVersionFromAnotherRunAndDropsExactCopies() throws IOException {
+        // An in-memory database starts its ids and versions over on every boot; the log doesn't
+        PriceAuditRecord earlierRun = new PriceAuditRecord(1L, 1L, 1_000L, new BigDecimal("10.00"),
+                new BigDecimal("11.00"), "admin");
+        try (PriceAuditLog log = open(16, 100)) {
+            log.append(earlierRun);
+            log.append(earlierRun); // as left behind by an interrupted compaction
+            log.flush();
+        }
+
+        try (PriceAuditLog log = open(16, 100)) {
+            log.append(new PriceAuditRecord(1L, 1L, 2_000L, new BigDecimal("99.00"), new BigDecimal("98.00"), "system"));
+            log.flush();
+
+            assertThat(log.history(1L)).extracting(PriceAuditRecord::timestampMillis).containsExactly(1_000L, 2_000L);
+        }
+    }
+
+    @Test
+    public void testCompaction_DropsRecordsPastRetention() throws IOException {
+        try (PriceAuditLog log = open(4, 100)) {
+            for (long version = 1; version <= 4; version++) {
+                log.append(new PriceAuditRecord(1L, version, 0L, new BigDecimal("1.00"), new BigDecimal("2.00"), "admin"));
+            }
+            for (long version = 5; version <= 10; version++) {
+                log.append(record(1L, version, "1.00", "2.00", "admin"));
+            }
+            log.flush();
+
+            log.compact();
+
+            assertThat(log.history(1L)).extracting(PriceAuditRecord::version)
+                    .containsExactly(5L, 6L, 7L, 8L, 9L, 10L);
+            assertThat(log.segmentCount()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void testFullQueue_DropsInsteadOfBlocking() throws IOException {
+        try (PriceAuditLog log = open(4, 0)) {
+            assertThat(log.append(record(1L, 1L, "1.00", "2.00", "admin"))).isFalse();
+            log.flush();
+            assertThat(log.history(1L)).isEmpty();
+        }
+    }
+
+    @Test
+    public void testUnencodablePrice_IsSkippedAndDoesNotBlockTheQueue() throws IOException {
+        try (PriceAuditLog log = open(16, 100)) {
+            log.append(record(1L, 1L, "10.00", "1.0000000000000000000001", "admin"));
+            log.append(record(1L, 2L, "1.00", "1" + "0".repeat(30), "admin"));
+            log.append(record(1L, 3L, "1.00", "2.00", "admin"));
+            log.flush();
+
+            List<PriceAuditRecord> history = log.history(1L);
+
+            // Rounded to the column's scale, the out-of-range one skipped, the one behind it written
+            assertThat(history).extracting(PriceAuditRecord::version).containsExactly(1L, 3L);
+            assertThat(history.get(0).newPrice()).isEqualTo(new BigDecimal("1.00"));
+        }
+    }
+
+    private static PriceAuditRecord record(Long productId, Long version, String oldPrice, String newPrice, String username) {
+        return new PriceAuditRecord(productId, version, System.currentTimeMillis(),
+                oldPrice == null ? null : new BigDecimal(oldPrice), new BigDecimal(newPrice), username);
+    }
+}
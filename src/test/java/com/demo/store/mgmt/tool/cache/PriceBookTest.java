@@ -0,0 +1,80 @@
+package com.demo.store.mgmt.tool.cache;
+
+import com.demo.store.mgmt.tool.events.ProductChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PriceBookTest {
+
+    private final PriceBook priceBook = new PriceBook(null, new SimpleMeterRegistry(), 16, true);
+
+    @Test
+    public void testCommittedChanges_AreVisibleInCents() {
+        priceBook.onProductChanged(new ProductChangedEvent(ProductChangedEvent.Type.CREATED, 7L, "Cable",
+                new BigDecimal("12.50"), 0L, null));
+        priceBook.onProductChanged(ProductChangedEvent.priceChanged(7L, "Cable", new BigDecimal("9.999"), 1L));
+
+        // Rounded like the NUMERIC(10, 2) column
+        assertThat(priceBook.priceCents(7L)).isEqualTo(1000L);
+        assertThat(priceBook.priceCents(8L)).isEqualTo(PriceBook.NO_PRICE);
+    }
+
+    @Test
+    public void testOlderVersion_DoesNotReplaceNewerPrice() {
+        priceBook.onProductChanged(ProductChangedEvent.priceChanged(1L, "Mouse", new BigDecimal("30.00"), 3L));
+        priceBook.onProductChanged(ProductChangedEvent.priceChanged(1L, "Mouse", new BigDecimal("20.00"), 2L));
+
+        assertThat(priceBook.priceCents(1L)).isEqualTo(3000L);
+    }
+
+    @Test
+    public void testDeletedProduct_StaysDeleted() {
+        priceBook.onProductChanged(ProductChangedEvent.priceChanged(1L, "Mouse", new BigDecimal("30.00"), 3L));
+        priceBook.onProductChanged(new ProductChangedEvent(ProductChangedEvent.Type.DELETED, 1L, "Mouse", null, 3L, null));
+        priceBook.onProductChanged(ProductChangedEvent.priceChanged(1L, "Mouse", new BigDecimal("25.00"), 2L));
+
+        assertThat(priceBook.priceCents(1L)).isEqualTo(PriceBook.NO_PRICE);
+    }
+
+    @Test
+    public void testNonPositiveIds_HaveNoPrice() {
+        priceBook.onProductChanged(ProductChangedEvent.priceChanged(1L, "Mouse", new BigDecimal("30.00"), 1L));
+
+        assertThat(priceBook.priceCents(0L)).isEqualTo(PriceBook.NO_PRICE);
+        assertThat(priceBook.priceCents(-1L)).isEqualTo(PriceBook.NO_PRICE);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    public void testMap_MatchesHashMapThroughGrowthAndRemovals(boolean offHeap) {
+        LongLongMap map = new LongLongMap(16, offHeap);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            long key = 1 + random.nextInt(5_000);
+            if (random.nextInt(4) == 0) {
+                Long previous = expected.remove(key);
+                assertThat(map.remove(key)).isEqualTo(previous == null ? LongLongMap.NO_VALUE : previous);
+            } else {
+                long value = random.nextLong() & Long.MAX_VALUE;
+                Long previous = expected.put(key, value);
+                assertThat(map.put(key, value)).isEqualTo(previous == null ? LongLongMap.NO_VALUE : previous);
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        for (long key = 1; key <= 5_000; key++) {
+            Long value = expected.get(key);
+            assertThat(map.get(key)).isEqualTo(value == null ? LongLongMap.NO_VALUE : value);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.demo.store.mgmt.tool.config.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testBurst_IsAllowedThenRejectedUntilRefill() {
+        TokenBucket bucket = new TokenBucket(10, 5, 0);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryAcquire(0)).isZero();
+        }
+        // One permit per 100 ms at 10/s
+        assertThat(bucket.tryAcquire(0)).isEqualTo(SECOND / 10);
+        assertThat(bucket.tryAcquire(SECOND / 10)).isZero();
+        assertThat(bucket.tryAcquire(SECOND / 10)).isPositive();
+    }
+
+    @Test
+    public void testIdleBucket_RefillsOnlyUpToTheBurst() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+
+        long later = 60 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.tryAcquire(later)).isZero();
+        }
+        assertThat(bucket.tryAcquire(later)).isPositive();
+    }
+
+    @Test
+    public void testSustainedRate_IsHonoured() {
+        TokenBucket bucket = new TokenBucket(10, 1, 0);
+
+        int allowed = 0;
+        // Try every millisecond for ten seconds
+        for (long now = 0; now < 10 * SECOND; now += TimeUnit.MILLISECONDS.toNanos(1)) {
+            if (bucket.tryAcquire(now) == 0) {
+                allowed++;
+            }
+        }
+        assertThat(allowed).isEqualTo(100);
+    }
+}
@@ -0,0 +1,78 @@
+package com.demo.store.mgmt.tool.config.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CachingAuthenticationProviderTest {
+
+    @Mock
+    private AuthenticationProvider delegate;
+
+    private CachingAuthenticationProvider provider;
+
+    @BeforeEach
+    public void setUp() {
+        provider = new CachingAuthenticationProvider(delegate, Duration.ofMinutes(5), 100, new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void testRepeatedLogin_HitsDelegateOnce() {
+        when(delegate.authenticate(any(Authentication.class))).thenReturn(authenticated("user"));
+
+        Authentication first = provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user", "password"));
+        Authentication second = provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user", "password"));
+
+        assertThat(first.isAuthenticated()).isTrue();
+        assertThat(second).isSameAs(first);
+        assertThat(second.getCredentials()).isNull(); // The password itself is never kept
+        verify(delegate, times(1)).authenticate(any(Authentication.class));
+    }
+
+    @Test
+    public void testWrongPassword_IsNotServedFromCache() {
+        when(delegate.authenticate(any(Authentication.class)))
+                .thenReturn(authenticated("user"))
+                .thenThrow(new BadCredentialsException("Bad credentials"));
+
+        provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user", "password"));
+
+        Assertions.assertThrows(BadCredentialsException.class, () ->
+                provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user", "wrong")));
+        verify(delegate, times(2)).authenticate(any(Authentication.class));
+    }
+
+    @Test
+    public void testEvictUser_ForcesFullAuthentication() {
+        when(delegate.authenticate(any(Authentication.class))).thenReturn(authenticated("user"));
+
+        provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user", "password"));
+        provider.evictUser("user");
+        provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("user", "password"));
+
+        verify(delegate, times(2)).authenticate(any(Authentication.class));
+    }
+
+    private Authentication authenticated(String username) {
+        return UsernamePasswordAuthenticationToken.authenticated(username, null,
+                AuthorityUtils.createAuthorityList("ROLE_USER"));
+    }
+}
@@ -0,0 +1,108 @@
+package com.demo.store.mgmt.tool.controllers;
+
+import com.demo.store.mgmt.tool.dto.AddProductRequest;
+import com.demo.store.mgmt.tool.dto.TokenResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.client.MockMvcWebTestClient;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class AuthControllerTest {
+
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @BeforeEach
+    void setUp() {
+        this.webTestClient = MockMvcWebTestClient.bindToApplicationContext(this.context)
+                .apply(SecurityMockMvcConfigurers.springSecurity())
+                .build();
+    }
+
+    @Test
+    void testIssueToken_WithBasicAuth_TokenAuthenticatesApiCalls() {
+        String token = issueToken("user", "password").accessToken();
+
+        webTestClient.get().uri("/api/v1/products/count")
+                .headers(headers -> headers.setBearerAuth(token))
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void testTokenRoles_AreEnforcedByPreAuthorize() {
+        String userToken = issueToken("user", "password").accessToken();
+        String adminToken = issueToken("admin", "adminpass").accessToken();
+        AddProductRequest request = new AddProductRequest("Token Keyboard", BigDecimal.valueOf(75.0));
+
+        webTestClient.post().uri("/api/v1/products")
+                .headers(headers -> headers.setBearerAuth(userToken))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isForbidden();
+
+        webTestClient.post().uri("/api/v1/products")
+                .headers(headers -> headers.setBearerAuth(adminToken))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isCreated();
+    }
+
+    @Test
+    void testTamperedToken_ShouldFailWith401() {
+        String token = issueToken("user", "password").accessToken();
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        webTestClient.get().uri("/api/v1/products/count")
+                .headers(headers -> headers.setBearerAuth(tampered))
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void testIssueToken_WithWrongPassword_ShouldFailWith401() {
+        webTestClient.post().uri("/api/v1/auth/token")
+                .headers(headers -> headers.setBasicAuth("user", "wrong"))
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void testIssueToken_WithToken_ShouldFailWith403() {
+        String token = issueToken("user", "password").accessToken();
+
+        webTestClient.post().uri("/api/v1/auth/token")
+                .headers(headers -> headers.setBearerAuth(token))
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    private TokenResponse issueToken(String username, String password) {
+        TokenResponse response = webTestClient.post().uri("/api/v1/auth/token")
+                .headers(headers -> headers.setBasicAuth(username, password))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TokenResponse.class)
+                .returnResult()
+                .getResponseBody();
+        assertThat(response).isNotNull();
+        assertThat(response.tokenType()).isEqualTo("Bearer");
+        return response;
+    }
+}
@@ -1,14 +1,31 @@
 package com.demo.store.mgmt.tool.controllers;
 
 import com.demo.store.mgmt.tool.dto.AddProductRequest;
+import com.demo.store.mgmt.tool.dto.BulkPriceUpdateResponse;
+import com.demo.store.mgmt.tool.dto.PriceChange;
+import com.demo.store.mgmt.tool.dto.ProductPage;
+import com.demo.store.mgmt.tool.dto.ProductResponse;
+import com.demo.store.mgmt.tool.dto.ProductSnapshot;
+import com.demo.store.mgmt.tool.dto.RejectedPriceChange;
+import com.demo.store.mgmt.tool.dto.SnapshotReport;
 import com.demo.store.mgmt.tool.dto.UpdatePriceRequest;
 import com.demo.store.mgmt.tool.models.Product;
 import com.demo.store.mgmt.tool.repositories.ProductRepository;
+import com.demo.store.mgmt.tool.services.ProductSearchIndex;
+import com.demo.store.mgmt.tool.snapshot.CatalogSnapshotFile;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers;
@@ -17,8 +34,14 @@ import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.test.web.servlet.client.MockMvcWebTestClient;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("test") // <-- Add this annotation to select the test resources config
@@ -32,6 +55,12 @@ public class ProductControllerTest {
     @Autowired
     private WebApplicationContext context;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
     @BeforeEach
     void setUp() {
         this.webTestClient = MockMvcWebTestClient.bindToApplicationContext(this.context)
@@ -39,6 +68,8 @@ public class ProductControllerTest {
                 .build();
         // Also clear the test DB here if needed
         productRepository.deleteAll();
+        // deleteAll bypasses the service, so the search index still holds the previous tests' products
+        productSearchIndex.rebuild();
     }
 
     // Test Case 1: Adding a product as an ADMIN user (authorized)
@@ -59,6 +90,117 @@ public class ProductControllerTest {
     }
 
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testImportCsv_ReportsRejectedRows() {
+        String csv = "name,price\n"
+                + "Keyboard,75.00\n"
+                + "\"Mouse, wireless\",25.50\n"
+                + "Broken,abc\n"
+                + ",10.00\n";
+
+        webTestClient.post().uri("/api/v1/products/import")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .bodyValue(csv)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.rowsRead").isEqualTo(4)
+                .jsonPath("$.imported").isEqualTo(2)
+                .jsonPath("$.rejected").isEqualTo(2)
+                .jsonPath("$.errors[0].line").isEqualTo(4)
+                .jsonPath("$.errors[1].line").isEqualTo(5)
+                .jsonPath("$.errors[1].message").isEqualTo("name: must not be blank");
+
+        assertThat(productRepository.findSnapshotByName("Mouse, wireless")).isPresent();
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testImportNdjson_RejectsNullLines() {
+        String ndjson = "{\"name\": \"Keyboard\", \"price\": 75.00}\n"
+                + "null\n"
+                + "{\"name\": \"Webcam\", \"price\": 49.90}\n";
+
+        webTestClient.post().uri("/api/v1/products/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue(ndjson)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.rowsRead").isEqualTo(3)
+                .jsonPath("$.imported").isEqualTo(2)
+                .jsonPath("$.rejected").isEqualTo(1)
+                .jsonPath("$.errors[0].line").isEqualTo(2);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testImportCsv_DuplicateNamesOnlyRejectTheirOwnRows() {
+        productRepository.save(new Product(null, "Keyboard", BigDecimal.valueOf(70.00), null));
+        String csv = "name,price\n"
+                + "Keyboard,75.00\n"
+                + "Monitor,199.00\n"
+                + "Monitor,189.00\n"
+                + "Webcam,49.90\n";
+
+        webTestClient.post().uri("/api/v1/products/import")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .bodyValue(csv)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.imported").isEqualTo(2)
+                .jsonPath("$.rejected").isEqualTo(2)
+                .jsonPath("$.errors[0].line").isEqualTo(2)
+                .jsonPath("$.errors[0].message").isEqualTo("A product named 'Keyboard' already exists")
+                .jsonPath("$.errors[1].line").isEqualTo(4);
+
+        assertThat(productRepository.findSnapshotByName("Monitor").orElseThrow().price())
+                .isEqualByComparingTo("199.00");
+        assertThat(productRepository.findSnapshotByName("Webcam")).isPresent();
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER", "ADMIN"})
+    void testImportCsv_RoundsPricesToTheColumnScale() {
+        webTestClient.post().uri("/api/v1/products/import")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .bodyValue("name,price\nCable,10.005\n")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.imported").isEqualTo(1);
+
+        // The search index is fed by the published event, so it shows the price that was announced
+        webTestClient.get().uri("/api/v1/products/search?name=Cable")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].price").isEqualTo(10.01);
+        assertThat(productRepository.findSnapshotByName("Cable").orElseThrow().price())
+                .isEqualByComparingTo("10.01");
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testClearProductCache_AsUser_ShouldBeForbidden() {
+        webTestClient.get().uri("/actuator/productcache")
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.delete().uri("/actuator/productcache")
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testClearProductCache_AsAdmin_Succeeds() {
+        webTestClient.delete().uri("/actuator/productcache")
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+
     // Test Case 1: Adding a product as an USER user (not authorized)
     @Test
     @WithMockUser(roles = "USER")
@@ -127,12 +269,59 @@ public class ProductControllerTest {
         webTestClient.get().uri("/api/v1/products")
                 .exchange()
                 .expectStatus().isOk()
-                .expectBodyList(Product.class) // Expect a list of Product objects back
-                .hasSize(2)
-                .value(products -> {
-                    // AssertJ assertions on the resulting list
-                    assertThat(products.get(0).getName()).isEqualTo("Laptop");
-                });
+                .expectBody()
+                .jsonPath("$.items.length()").isEqualTo(2)
+                .jsonPath("$.items[0].name").isEqualTo("Laptop") // Pages are ordered by id
+                .jsonPath("$.next").isEmpty(); // Everything fits in the first page
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testGetAllProducts_FollowsNextCursor() {
+        productRepository.save(new Product(null, "Laptop", BigDecimal.valueOf(1200.00), 1L));
+        productRepository.save(new Product(null, "Mouse", BigDecimal.valueOf(25.00), 1L));
+        productRepository.save(new Product(null, "Monitor", BigDecimal.valueOf(300.00), 1L));
+
+        ProductPage firstPage = webTestClient.get().uri("/api/v1/products?size=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProductPage.class)
+                .returnResult().getResponseBody();
+
+        assertThat(firstPage.items()).hasSize(2);
+        assertThat(firstPage.next()).isNotNull();
+
+        webTestClient.get().uri("/api/v1/products?size=2&cursor={cursor}", firstPage.next())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items.length()").isEqualTo(1)
+                .jsonPath("$.items[0].name").isEqualTo("Monitor")
+                .jsonPath("$.next").isEmpty();
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testGetAllProducts_WithInvalidCursor_ShouldReturn400() {
+        webTestClient.get().uri("/api/v1/products?cursor=not-a-cursor")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER", "ADMIN"})
+    void testSearchFindsProductsAddedThroughTheApi() {
+        webTestClient.post().uri("/api/v1/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new AddProductRequest("Wireless Mouse", BigDecimal.valueOf(25.00)))
+                .exchange()
+                .expectStatus().isCreated();
+
+        webTestClient.get().uri("/api/v1/products/search?name=mouse")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].name").isEqualTo("Wireless Mouse");
     }
 
     @Test
@@ -154,6 +343,160 @@ public class ProductControllerTest {
                 .jsonPath("$.price").isEqualTo(newPrice.doubleValue());
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testBulkChangePrices_ReportsAppliedAndRejectedRows() {
+        Product laptop = productRepository.save(new Product(null, "Laptop", BigDecimal.valueOf(1200.00), 1L));
+        Product mouse = productRepository.save(new Product(null, "Mouse", BigDecimal.valueOf(25.00), 1L));
+        Product monitor = productRepository.save(new Product(null, "Monitor", BigDecimal.valueOf(300.00), 1L));
+
+        List<PriceChange> changes = List.of(
+                new PriceChange(laptop.getId(), BigDecimal.valueOf(1100.00), laptop.getVersion()),
+                new PriceChange(mouse.getId(), BigDecimal.valueOf(20.00), mouse.getVersion() + 5), // Stale version
+                new PriceChange(monitor.getId(), BigDecimal.ZERO, null),
+                new PriceChange(Long.MAX_VALUE, BigDecimal.TEN, null));
+
+        BulkPriceUpdateResponse response = webTestClient.put().uri("/api/v1/products/prices")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(changes)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BulkPriceUpdateResponse.class)
+                .returnResult().getResponseBody();
+
+        assertThat(response.applied()).singleElement()
+                .satisfies(applied -> {
+                    assertThat(applied.id()).isEqualTo(laptop.getId());
+                    assertThat(applied.version()).isEqualTo(laptop.getVersion() + 1);
+                });
+        assertThat(response.rejected())
+                .extracting(RejectedPriceChange::id, RejectedPriceChange::reason)
+                .containsExactlyInAnyOrder(
+                        tuple(mouse.getId(), RejectedPriceChange.Reason.VERSION_CONFLICT),
+                        tuple(monitor.getId(), RejectedPriceChange.Reason.INVALID_PRICE),
+                        tuple(Long.MAX_VALUE, RejectedPriceChange.Reason.NOT_FOUND));
+
+        assertThat(productRepository.findById(laptop.getId()).get().getPrice()).isEqualByComparingTo("1100.00");
+        assertThat(productRepository.findById(mouse.getId()).get().getPrice()).isEqualByComparingTo("25.00");
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testBulkChangePrices_ValidatesEachRowLikeASingleChange() {
+        Product laptop = productRepository.save(new Product(null, "Laptop", BigDecimal.valueOf(1200.00), 1L));
+        Product mouse = productRepository.save(new Product(null, "Mouse", BigDecimal.valueOf(25.00), 1L));
+        String body = "[null,"
+                + "{\"id\": " + laptop.getId() + ", \"newPrice\": 1000000000.00},"
+                + "{\"id\": " + mouse.getId() + ", \"newPrice\": 19.995}]";
+
+        BulkPriceUpdateResponse response = webTestClient.put().uri("/api/v1/products/prices")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BulkPriceUpdateResponse.class)
+                .returnResult().getResponseBody();
+
+        assertThat(response.rejected())
+                .extracting(RejectedPriceChange::id, RejectedPriceChange::reason)
+                .containsExactlyInAnyOrder(
+                        tuple(null, RejectedPriceChange.Reason.NOT_FOUND),
+                        tuple(laptop.getId(), RejectedPriceChange.Reason.INVALID_PRICE));
+        // Rounded like the column rounds it
+        assertThat(response.applied()).singleElement()
+                .satisfies(applied -> assertThat(applied.price()).isEqualByComparingTo("20.00"));
+        assertThat(productRepository.findById(laptop.getId()).get().getPrice()).isEqualByComparingTo("1200.00");
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER", "ADMIN"})
+    void testFindByIdNeverServesStalePriceAfterUpdate() {
+        Product existingProduct = productRepository.save(new Product(null, "Cached Product", BigDecimal.valueOf(50.00), 1L));
+        Long productId = existingProduct.getId();
+
+        // First read populates the cache
+        webTestClient.get().uri("/api/v1/products/{id}", productId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.price").isEqualTo(50.0);
+
+        webTestClient.put().uri("/api/v1/products/{id}", productId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UpdatePriceRequest(BigDecimal.valueOf(45.50)))
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.get().uri("/api/v1/products/{id}", productId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.price").isEqualTo(45.5);
+
+        webTestClient.delete().uri("/api/v1/products/{id}", productId)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient.get().uri("/api/v1/products/{id}", productId)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testFindById_IfNoneMatchReturns304() {
+        Product existingProduct = productRepository.save(new Product(null, "Tagged Product", BigDecimal.valueOf(10.00), 1L));
+
+        String eTag = webTestClient.get().uri("/api/v1/products/{id}", existingProduct.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .returnResult(String.class).getResponseHeaders().getETag();
+
+        webTestClient.get().uri("/api/v1/products/{id}", existingProduct.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testFindAll_IfNoneMatchReturns304WhileCatalogIsUnchanged() {
+        String eTag = webTestClient.get().uri("/api/v1/products")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class).getResponseHeaders().getETag();
+
+        webTestClient.get().uri("/api/v1/products")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testChangePrice_WithStaleIfMatch_ShouldFailWith412() {
+        Product existingProduct = productRepository.save(new Product(null, "Locked Product", BigDecimal.valueOf(10.00), 1L));
+        Long productId = existingProduct.getId();
+        String staleETag = "\"" + productId + "-" + (existingProduct.getVersion() + 1) + "\"";
+        String currentETag = "\"" + productId + "-" + existingProduct.getVersion() + "\"";
+
+        webTestClient.put().uri("/api/v1/products/{id}", productId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, staleETag)
+                .bodyValue(new UpdatePriceRequest(BigDecimal.valueOf(12.00)))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        webTestClient.put().uri("/api/v1/products/{id}", productId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, currentETag)
+                .bodyValue(new UpdatePriceRequest(BigDecimal.valueOf(12.00)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG,
+                        "\"" + productId + "-" + (existingProduct.getVersion() + 1) + "\"");
+    }
+
     @Test
     @WithMockUser(roles = "ADMIN")
     void testChangePriceShouldFailWith400ForInvalidPriceType() {
@@ -191,4 +534,175 @@ public class ProductControllerTest {
         // Verify it was actually deleted from the H2 DB
         assertThat(productRepository.findById(productId)).isEmpty();
     }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testExportSnapshot_WritesEveryProduct() throws IOException {
+        productRepository.save(new Product(null, "Desk", new BigDecimal("149.00"), null));
+        productRepository.save(new Product(null, "Desk Lamp", new BigDecimal("19.99"), null));
+
+        SnapshotReport report = webTestClient.post().uri("/api/v1/products/snapshots")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(SnapshotReport.class).returnResult().getResponseBody();
+
+        assertThat(report.products()).isEqualTo(2);
+        List<ProductSnapshot> products = new ArrayList<>();
+        CatalogSnapshotFile.read(Path.of(report.file()), products::add);
+        assertThat(products).extracting(ProductSnapshot::name, ProductSnapshot::price)
+                .containsExactly(tuple("Desk", new BigDecimal("149.00")), tuple("Desk Lamp", new BigDecimal("19.99")));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testExportSnapshot_AsUser_ShouldBeForbidden() {
+        webTestClient.post().uri("/api/v1/products/snapshots")
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testGetCount_RecordsQueryCountAndServiceTimer() {
+        webTestClient.get().uri("/api/v1/products/count")
+                .exchange()
+                .expectStatus().isOk();
+
+        DistributionSummary queries = meterRegistry.find("http.server.requests.queries")
+                .tags("method", "GET", "uri", "/api/v1/products/count")
+                .summary();
+        assertThat(queries).isNotNull();
+        assertThat(queries.max()).isEqualTo(1.0);
+        assertThat(meterRegistry.find("store.product.service").tag("method", "countProducts").timer()).isNotNull();
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testAddProduct_DuplicateNameReturns409() {
+        productRepository.save(new Product(null, "Keyboard", BigDecimal.valueOf(75.00), 1L));
+
+        webTestClient.post().uri("/api/v1/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new AddProductRequest("Keyboard", BigDecimal.valueOf(80.00)))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT)
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("The change conflicts with an existing product; product names must be unique.");
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testChangePrice_AboveColumnRangeIsBadRequest() {
+        Product product = productRepository.save(new Product(null, "Keyboard", BigDecimal.valueOf(75.00), 1L));
+
+        webTestClient.put().uri("/api/v1/products/{id}", product.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UpdatePriceRequest(new BigDecimal("100000000.00")))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testFilter_ReturnsCheapestProductsInRange() {
+        productRepository.save(new Product(null, "Laptop", BigDecimal.valueOf(1200.00), 1L));
+        productRepository.save(new Product(null, "Mouse", BigDecimal.valueOf(25.00), 1L));
+        productRepository.save(new Product(null, "Monitor", BigDecimal.valueOf(300.00), 1L));
+        productRepository.save(new Product(null, "Cable", BigDecimal.valueOf(5.00), 1L));
+
+        webTestClient.get().uri("/api/v1/products/filter?minPrice=10&maxPrice=1000&limit=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].name").isEqualTo("Mouse")
+                .jsonPath("$[1].name").isEqualTo("Monitor");
+
+        webTestClient.get().uri("/api/v1/products/filter?sort=name&direction=desc&limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].name").isEqualTo("Mouse");
+
+        webTestClient.get().uri("/api/v1/products/filter?sort=stock")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER", "ADMIN"})
+    void testGetPrice_ServedFromPriceBook() {
+        Product created = webTestClient.post().uri("/api/v1/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new AddProductRequest("Headset", new BigDecimal("49.90")))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Product.class).returnResult().getResponseBody();
+
+        webTestClient.get().uri("/api/v1/products/{id}/price", created.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("{\"id\":" + created.getId() + ",\"price\":49.90}");
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testGetPrice_UnknownIdZeroIsNotFound() {
+        webTestClient.get().uri("/api/v1/products/0/price")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testBatchLookup_ReturnsProductsInRequestOrder() {
+        Long laptop = productRepository.save(new Product(null, "Laptop", BigDecimal.valueOf(1200.00), 1L)).getId();
+        Long mouse = productRepository.save(new Product(null, "Mouse", BigDecimal.valueOf(25.00), 1L)).getId();
+        long unknown = mouse + 1000;
+
+        webTestClient.get().uri("/api/v1/products/batch?ids={a},{b},{c}", mouse, unknown, laptop)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.products[0].name").isEqualTo("Mouse")
+                .jsonPath("$.products[1].name").isEqualTo("Laptop")
+                .jsonPath("$.missing[0]").isEqualTo(unknown);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testFindAll_AsCbor_KeepsExactPrices() throws IOException {
+        productRepository.save(new Product(null, "Cable", new BigDecimal("12.50"), 1L));
+
+        byte[] body = webTestClient.get().uri("/api/v1/products")
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectBody(byte[].class).returnResult().getResponseBody();
+
+        ProductPage page = new ObjectMapper(new CBORFactory()).readValue(body, ProductPage.class);
+        assertThat(page.items()).extracting(ProductResponse::name, ProductResponse::price)
+                .containsExactly(tuple("Cable", new BigDecimal("12.50")));
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER", "ADMIN"})
+    void testSearch_AsSmile() throws IOException {
+        webTestClient.post().uri("/api/v1/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new AddProductRequest("Trackball Mouse", new BigDecimal("25.00")))
+                .exchange()
+                .expectStatus().isCreated();
+
+        byte[] body = webTestClient.get().uri("/api/v1/products/search?name=trackball")
+                .accept(MediaType.parseMediaType("application/x-jackson-smile"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(byte[].class).returnResult().getResponseBody();
+
+        List<ProductResponse> products = new ObjectMapper(new SmileFactory())
+                .readValue(body, new TypeReference<List<ProductResponse>>() {});
+        assertThat(products).extracting(ProductResponse::price).containsExactly(new BigDecimal("25.00"));
+    }
 }
@@ -0,0 +1,155 @@
+package com.demo.store.mgmt.tool.controllers;
+
+import com.demo.store.mgmt.tool.dto.AddProductRequest;
+import com.demo.store.mgmt.tool.dto.ProductResponse;
+import com.demo.store.mgmt.tool.dto.TokenResponse;
+import com.demo.store.mgmt.tool.dto.UpdatePriceRequest;
+import com.demo.store.mgmt.tool.models.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The reactive profile on a real Netty server, with its own database and audit directory so it
+// can't disturb the servlet contexts the other tests share
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.datasource.url=jdbc:h2:mem:testdb_reactive;DB_CLOSE_ON_EXIT=FALSE",
+        "store.r2dbc.url=r2dbc:h2:mem:///testdb_reactive",
+        "store.audit.directory=target/audit-test-reactive"
+})
+@ActiveProfiles("test")
+public class ReactiveProductControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void testAddProduct_ThenFetchById_RevalidatesWithETag() {
+        Product created = addProduct("Reactive Keyboard", "75.00");
+
+        String eTag = webTestClient.get().uri("/api/v1/products/{id}", created.getId())
+                .headers(headers -> headers.setBasicAuth("user", "password"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"" + created.getId() + "-0\"")
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Reactive Keyboard")
+                .returnResult()
+                .getResponseHeaders().getETag();
+
+        webTestClient.get().uri("/api/v1/products/{id}", created.getId())
+                .headers(headers -> {
+                    headers.setBasicAuth("user", "password");
+                    headers.setIfNoneMatch(eTag);
+                })
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void testSearch_WithNdjson_StreamsMatches() {
+        addProduct("Reactive Streaming Mouse", "25.50");
+
+        List<ProductResponse> found = webTestClient.get()
+                .uri(uri -> uri.path("/api/v1/products/search").queryParam("name", "streaming mouse").build())
+                .headers(headers -> headers.setBasicAuth("user", "password"))
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(ProductResponse.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(found).extracting(ProductResponse::name).containsExactly("Reactive Streaming Mouse");
+    }
+
+    @Test
+    void testChangePrice_WithStaleIfMatch_ShouldFailWith412() {
+        Product created = addProduct("Reactive Monitor", "199.00");
+
+        webTestClient.put().uri("/api/v1/products/{id}", created.getId())
+                .headers(headers -> {
+                    headers.setBasicAuth("admin", "adminpass");
+                    headers.setIfMatch("\"" + created.getId() + "-0\"");
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UpdatePriceRequest(new BigDecimal("189.00")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"" + created.getId() + "-1\"")
+                .expectBody()
+                .jsonPath("$.price").isEqualTo(189.0);
+
+        webTestClient.put().uri("/api/v1/products/{id}", created.getId())
+                .headers(headers -> {
+                    headers.setBasicAuth("admin", "adminpass");
+                    headers.setIfMatch("\"" + created.getId() + "-0\"");
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UpdatePriceRequest(new BigDecimal("179.00")))
+                .exchange()
+                .expectStatus().isEqualTo(412);
+    }
+
+    @Test
+    void testAddProduct_WithInvalidBody_ShouldFailWith400() {
+        webTestClient.post().uri("/api/v1/products")
+                .headers(headers -> headers.setBasicAuth("admin", "adminpass"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new AddProductRequest("", BigDecimal.TEN))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.name").exists();
+    }
+
+    @Test
+    void testSecurity_RolesAndTokensAreEnforced() {
+        webTestClient.get().uri("/api/v1/products/count")
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        webTestClient.post().uri("/api/v1/products")
+                .headers(headers -> headers.setBasicAuth("user", "password"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new AddProductRequest("Reactive Forbidden", BigDecimal.TEN))
+                .exchange()
+                .expectStatus().isForbidden();
+
+        TokenResponse token = webTestClient.post().uri("/api/v1/auth/token")
+                .headers(headers -> headers.setBasicAuth("user", "password"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TokenResponse.class)
+                .returnResult()
+                .getResponseBody();
+
+        webTestClient.get().uri("/api/v1/products/count")
+                .headers(headers -> headers.setBearerAuth(token.accessToken()))
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    private Product addProduct(String name, String price) {
+        return webTestClient.post().uri("/api/v1/products")
+                .headers(headers -> headers.setBasicAuth("admin", "adminpass"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new AddProductRequest(name, new BigDecimal(price)))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Product.class)
+                .returnResult()
+                .getResponseBody();
+    }
+}
@@ -0,0 +1,186 @@
+package com.demo.store.mgmt.tool.controllers;
+
+import com.demo.store.mgmt.tool.models.Product;
+import com.demo.store.mgmt.tool.models.ScheduledPriceChange;
+import com.demo.store.mgmt.tool.repositories.ProductRepository;
+import com.demo.store.mgmt.tool.repositories.ScheduledPriceChangeRepository;
+import com.demo.store.mgmt.tool.services.PriceScheduler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.client.MockMvcWebTestClient;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class ScheduledPriceControllerTest {
+
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ScheduledPriceChangeRepository scheduleRepository;
+
+    @Autowired
+    private PriceScheduler priceScheduler;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        this.webTestClient = MockMvcWebTestClient.bindToApplicationContext(this.context)
+                .apply(SecurityMockMvcConfigurers.springSecurity())
+                .build();
+        productRepository.deleteAll();
+        product = productRepository.save(new Product(null, "Monitor", new BigDecimal("200.00"), null));
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER", "ADMIN"})
+    void testScheduledPrice_IsAppliedWhenDue() throws InterruptedException {
+        Instant effectiveAt = Instant.now().plusMillis(300);
+        schedule(product.getId(), "150.00", effectiveAt)
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("PENDING");
+
+        BigDecimal price = product.getPrice();
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (price.compareTo(new BigDecimal("150.00")) != 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            price = productRepository.findById(product.getId()).orElseThrow().getPrice();
+        }
+        assertThat(price).isEqualByComparingTo("150.00");
+
+        webTestClient.get().uri("/api/v1/products/{id}/scheduled-prices", product.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].status").isEqualTo("APPLIED")
+                .jsonPath("$[0].appliedVersion").isEqualTo(1);
+    }
+
+    @Test
+    void testRetriedChange_IsSupersededByALaterAppliedOne() throws InterruptedException {
+        // The later change went through while the earlier one was waiting for its retry
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        scheduleRepository.save(new ScheduledPriceChange(null, product.getId(), new BigDecimal("180.00"),
+                now.minusSeconds(5), ScheduledPriceChange.Status.APPLIED, 0L));
+        ScheduledPriceChange stale = scheduleRepository.save(new ScheduledPriceChange(null, product.getId(),
+                new BigDecimal("150.00"), now.minusSeconds(10), ScheduledPriceChange.Status.PENDING, null));
+        priceScheduler.recover();
+
+        ScheduledPriceChange.Status status = stale.getStatus();
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (status == ScheduledPriceChange.Status.PENDING && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            status = scheduleRepository.findById(stale.getId()).orElseThrow().getStatus();
+        }
+        assertThat(status).isEqualTo(ScheduledPriceChange.Status.SUPERSEDED);
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getPrice()).isEqualByComparingTo("200.00");
+    }
+
+    @Test
+    @WithMockUser(roles = {"USER", "ADMIN"})
+    void testEffectivePrice_FollowsPendingChangesUntilCancelled() {
+        Instant effectiveAt = Instant.now().plus(Duration.ofHours(1));
+        Integer scheduleId = schedule(product.getId(), "99.90", effectiveAt)
+                .expectStatus().isCreated()
+                .expectBody(ScheduleId.class).returnResult().getResponseBody().id();
+
+        webTestClient.get().uri("/api/v1/products/{id}/effective-price?at={at}", product.getId(), effectiveAt.minusSeconds(1))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.price").isEqualTo(200.0)
+                .jsonPath("$.scheduleId").doesNotExist();
+        webTestClient.get().uri("/api/v1/products/{id}/effective-price?at={at}", product.getId(), effectiveAt)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.price").isEqualTo(99.9)
+                .jsonPath("$.scheduleId").isEqualTo(scheduleId);
+
+        webTestClient.delete().uri("/api/v1/products/scheduled-prices/{id}", scheduleId)
+                .exchange()
+                .expectStatus().isNoContent();
+        webTestClient.delete().uri("/api/v1/products/scheduled-prices/{id}", scheduleId)
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.get().uri("/api/v1/products/{id}/effective-price?at={at}", product.getId(), effectiveAt)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.price").isEqualTo(200.0);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testSchedulePrices_RejectsWholeRequestOnUnknownProduct() {
+        String future = Instant.now().plus(Duration.ofHours(1)).toString();
+        webTestClient.post().uri("/api/v1/products/scheduled-prices")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[{\"productId\": " + product.getId() + ", \"newPrice\": 10.00, \"effectiveAt\": \"" + future + "\"},"
+                        + "{\"productId\": -1, \"newPrice\": 10.00, \"effectiveAt\": \"" + future + "\"}]")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        webTestClient.get().uri("/api/v1/products/{id}/scheduled-prices", product.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(0);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testSchedulePrices_StoreAndEchoTheRoundedPrice() {
+        Instant future = Instant.now().plus(Duration.ofHours(1));
+        schedule(product.getId(), "99.905", future)
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.newPrice").isEqualTo(99.91);
+        webTestClient.post().uri("/api/v1/products/scheduled-prices")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[{\"productId\": " + product.getId() + ", \"newPrice\": 10.005, \"effectiveAt\": \""
+                        + future.plusSeconds(60) + "\"}]")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$[0].newPrice").isEqualTo(10.01);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testSchedulePrice_InThePast_Returns400() {
+        schedule(product.getId(), "10.00", Instant.now().minusSeconds(60))
+                .expectStatus().isBadRequest();
+    }
+
+    private WebTestClient.ResponseSpec schedule(Long productId, String newPrice, Instant effectiveAt) {
+        return webTestClient.post().uri("/api/v1/products/{id}/scheduled-prices", productId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"newPrice\": " + newPrice + ", \"effectiveAt\": \"" + effectiveAt + "\"}")
+                .exchange();
+    }
+
+    private record ScheduleId(Integer id) {}
+}
@@ -0,0 +1,125 @@
+package com.demo.store.mgmt.tool.events;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+public class ProductEventStreamTest {
+
+    private ProductEventStream stream;
+
+    @BeforeEach
+    public void setUp() {
+        stream = new ProductEventStream(4, 10, Duration.ofMinutes(1), Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        stream.shutdown();
+    }
+
+    @Test
+    public void testCommittedEvents_AreNumberedInOrder() {
+        stream.onProductChanged(priceChanged(1L, "10.00"));
+        stream.onProductChanged(priceChanged(2L, "20.00"));
+        stream.onProductChanged(priceChanged(1L, "11.00"));
+
+        List<SequencedProductEvent> events = stream.readAfter(0, 10);
+
+        assertThat(events).extracting(SequencedProductEvent::sequence).containsExactly(1L, 2L, 3L);
+        assertThat(events).extracting(SequencedProductEvent::id).containsExactly(1L, 2L, 1L);
+        assertThat(stream.readAfter(1, 1)).extracting(SequencedProductEvent::sequence).containsExactly(2L);
+        assertThat(stream.readAfter(3, 10)).isEmpty();
+    }
+
+    @Test
+    public void testOverwrittenEvents_CannotBeResumedFrom() {
+        for (long id = 1; id <= 6; id++) {
+            stream.onProductChanged(priceChanged(id, "10.00"));
+        }
+
+        // The ring holds 4 events: 3..6
+        assertThat(stream.readAfter(1, 10)).isNull();
+        assertThat(stream.readAfter(2, 10)).extracting(SequencedProductEvent::sequence).containsExactly(3L, 4L, 5L, 6L);
+        assertThat(stream.resumePoint(stream.eventId(1))).isEqualTo(-1);
+        assertThat(stream.resumePoint(stream.eventId(4))).isEqualTo(4);
+    }
+
+    @Test
+    public void testResumePoint_RejectsUnknownOrStaleIds() {
+        stream.onProductChanged(priceChanged(1L, "10.00"));
+
+        assertThat(stream.resumePoint(null)).isEqualTo(1);
+        assertThat(stream.resumePoint("garbage")).isEqualTo(-1);
+        assertThat(stream.resumePoint("42-1")).isEqualTo(-1); // from before a restart
+        assertThat(stream.resumePoint(stream.eventId(7))).isEqualTo(-1); // from the future
+    }
+
+    @Test
+    public void testLateEvents_AreDroppedRatherThanSentAfterNewerOnes() {
+        stream.onProductChanged(ProductChangedEvent.priceChanged(1L, "Product 1", new BigDecimal("12.00"), 3L));
+        stream.onProductChanged(ProductChangedEvent.priceChanged(1L, "Product 1", new BigDecimal("11.00"), 2L));
+        stream.onProductChanged(new ProductChangedEvent(ProductChangedEvent.Type.DELETED, 2L, "Product 2", null, 1L, null));
+        stream.onProductChanged(ProductChangedEvent.priceChanged(2L, "Product 2", new BigDecimal("20.00"), 1L));
+
+        List<SequencedProductEvent> events = stream.readAfter(0, 10);
+
+        assertThat(events).extracting(SequencedProductEvent::id).containsExactly(1L, 2L);
+        assertThat(events).extracting(SequencedProductEvent::sequence).containsExactly(1L, 2L);
+    }
+
+    @Test
+    public void testStuckSubscriber_DoesNotHoldUpCommits() throws Exception {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ProductEventStream stuckStream = new ProductEventStream(4, 10, Duration.ofMinutes(1), Duration.ofMinutes(1)) {
+            @Override
+            SseEmitter createEmitter(long timeoutMillis) {
+                return new SseEmitter(timeoutMillis) {
+                    // Like a write to a full socket: holds the emitter's lock, as Spring's send does
+                    @Override
+                    public synchronized void send(SseEventBuilder builder) throws IOException {
+                        sending.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                        }
+                        throw new IOException("Broken pipe");
+                    }
+                };
+            }
+        };
+        try {
+            stuckStream.subscribe(null);
+            stuckStream.onProductChanged(priceChanged(1L, "10.00"));
+            assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // The subscriber falls more than a ring behind and is dropped by a committing thread
+            assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+                for (long id = 2; id <= 6; id++) {
+                    stuckStream.onProductChanged(priceChanged(id, "10.00"));
+                }
+            });
+            assertThat(stuckStream.subscriberCount()).isZero();
+        } finally {
+            release.countDown();
+            stuckStream.shutdown();
+        }
+    }
+
+    private static ProductChangedEvent priceChanged(Long id, String price) {
+        return ProductChangedEvent.priceChanged(id, "Product " + id, new BigDecimal(price), 1L);
+    }
+}
@@ -0,0 +1,99 @@
+package com.demo.store.mgmt.tool.repositories;
+
+import com.demo.store.mgmt.tool.models.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs the repository's lookups, then asks H2 for the plan of every statement Hibernate sent.
+// A plan must name an index together with the condition it seeks on ("/* PUBLIC.IDX: PRICE >= ?1 ... */");
+// "tableScan", or an index walked without a condition, means a full scan.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class ProductQueryPlanTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        List<Product> products = new ArrayList<>();
+        for (int i = 1; i <= 500; i++) {
+            products.add(new Product(null, "Product " + i, BigDecimal.valueOf(i * 7L % 1000, 2), null));
+        }
+        productRepository.saveAll(products);
+        // Fresh statistics, and only our statements in QUERY_STATISTICS
+        jdbcTemplate.execute("ANALYZE");
+        jdbcTemplate.execute("SET QUERY_STATISTICS FALSE");
+        jdbcTemplate.execute("SET QUERY_STATISTICS TRUE");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SET QUERY_STATISTICS FALSE");
+        productRepository.deleteAll();
+    }
+
+    @Test
+    public void testLookupByName_SeeksTheNameIndex() {
+        productRepository.findSnapshotByName("Product 42");
+
+        assertThat(plans("where p1_0.name=")).singleElement().satisfies(ProductQueryPlanTest::assertIndexSeek);
+    }
+
+    @Test
+    public void testPriceRangeQueries_SeekThePriceIndex() {
+        BigDecimal min = new BigDecimal("1.00");
+        BigDecimal max = new BigDecimal("2.00");
+        productRepository.findByPriceBetween(min, max, PageRequest.of(0, 10, Sort.by("price").and(Sort.by("id"))));
+        productRepository.findByPriceBetween(min, max, PageRequest.of(0, 10,
+                Sort.by(Sort.Direction.DESC, "price").and(Sort.by(Sort.Direction.DESC, "id"))));
+        productRepository.findByPriceBetween(min, max, PageRequest.of(0, 10, Sort.by("name")));
+
+        List<String> plans = plans("between");
+        assertThat(plans).hasSize(3).allSatisfy(ProductQueryPlanTest::assertIndexSeek);
+        assertThat(plans).allSatisfy(plan -> assertThat(plan).contains("IDX_PRODUCTS_PRICE"));
+    }
+
+    private static void assertIndexSeek(String plan) {
+        assertThat(plan).doesNotContain("tableScan");
+        assertThat(plan).containsPattern("/\\* PUBLIC\\.[A-Z0-9_]+: ");
+    }
+
+    // EXPLAIN of each recorded statement; parameters only have to be bound, not meaningful
+    private List<String> plans(String fragment) {
+        List<String> statements = jdbcTemplate.queryForList(
+                "SELECT SQL_STATEMENT FROM INFORMATION_SCHEMA.QUERY_STATISTICS", String.class);
+        List<String> plans = new ArrayList<>();
+        for (String sql : statements) {
+            String lowerCase = sql.toLowerCase(Locale.ROOT);
+            if (!lowerCase.contains("from products") || !lowerCase.contains(fragment)) {
+                continue;
+            }
+            plans.add(jdbcTemplate.query("EXPLAIN " + sql, statement -> {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, 1);
+                }
+            }, rows -> rows.next() ? rows.getString(1) : null));
+        }
+        return plans;
+    }
+}
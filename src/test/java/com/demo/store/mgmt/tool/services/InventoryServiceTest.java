@@ -0,0 +1,186 @@
+package com.demo.store.mgmt.tool.services;
+
+import com.demo.store.mgmt.tool.dto.ReservationResponse;
+import com.demo.store.mgmt.tool.dto.StockLevelResponse;
+import com.demo.store.mgmt.tool.dto.StockWrite;
+import com.demo.store.mgmt.tool.events.ProductChangedEvent;
+import com.demo.store.mgmt.tool.exception.InsufficientStockException;
+import com.demo.store.mgmt.tool.exception.ProductNotFoundException;
+import com.demo.store.mgmt.tool.exception.ReservationNotFoundException;
+import com.demo.store.mgmt.tool.models.Product;
+import com.demo.store.mgmt.tool.models.StockLevel;
+import com.demo.store.mgmt.tool.repositories.StockLevelRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class InventoryServiceTest {
+
+    private static final int THREADS = 64;
+
+    @Mock
+    private StockLevelRepository stockLevelRepository;
+
+    @Mock
+    private ProductService productService;
+
+    @Captor
+    private ArgumentCaptor<List<StockWrite>> writes;
+
+    private InventoryService inventoryService;
+
+    @BeforeEach
+    public void setUp() {
+        when(productService.findProductVersion(1L)).thenReturn(Optional.of(0L));
+        // The write-behind thread is kept out of the way; tests call flush() themselves
+        inventoryService = new InventoryService(stockLevelRepository, productService, new SimpleMeterRegistry(),
+                Duration.ofMinutes(15), Duration.ofHours(1));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        // Shutdown writes whatever is still pending
+        lenient().when(stockLevelRepository.updateOnHandIfVersionMatches(any()))
+                .thenAnswer(invocation -> ones(invocation.<List<StockWrite>>getArgument(0).size()));
+        inventoryService.shutdown();
+    }
+
+    @Test
+    public void testConcurrentCheckouts_OfOneHotProduct_NeverOversell() throws Exception {
+        when(stockLevelRepository.findById(1L)).thenReturn(Optional.of(new StockLevel(1L, 1000, 0L)));
+        ConcurrentLinkedQueue<ReservationResponse> reservations = new ConcurrentLinkedQueue<>();
+        AtomicInteger rejections = new AtomicInteger();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < 100; i++) {
+                try {
+                    reservations.add(inventoryService.reserve(1L, 1));
+                } catch (InsufficientStockException ex) {
+                    rejections.incrementAndGet();
+                }
+            }
+        });
+
+        assertThat(reservations).hasSize(1000);
+        assertThat(rejections.get()).isEqualTo(THREADS * 100 - 1000);
+        assertThat(inventoryService.getStockLevel(1L)).isEqualTo(new StockLevelResponse(1L, 1000, 1000, 0));
+
+        // Half of the checkouts go through, the other half are abandoned, all at once
+        List<ReservationResponse> all = new ArrayList<>(reservations);
+        AtomicInteger next = new AtomicInteger();
+        runConcurrently(() -> {
+            int index;
+            while ((index = next.getAndIncrement()) < all.size()) {
+                if (index % 2 == 0) {
+                    inventoryService.commit(all.get(index).reservationId());
+                } else {
+                    inventoryService.release(all.get(index).reservationId());
+                }
+            }
+        });
+
+        assertThat(inventoryService.getStockLevel(1L)).isEqualTo(new StockLevelResponse(1L, 500, 0, 500));
+        assertThat(inventoryService.activeReservations()).isZero();
+        Assertions.assertThrows(ReservationNotFoundException.class,
+                () -> inventoryService.commit(all.get(0).reservationId()));
+    }
+
+    @Test
+    public void testWriteBehind_MergesAChangeMadeElsewhere() {
+        // Loaded at 10 units, version 0; by the time we write, someone else has sold 2 (version 1)
+        when(stockLevelRepository.findById(1L))
+                .thenReturn(Optional.of(new StockLevel(1L, 10, 0L)))
+                .thenReturn(Optional.of(new StockLevel(1L, 8, 1L)));
+        when(stockLevelRepository.updateOnHandIfVersionMatches(any())).thenReturn(new int[]{0}, new int[]{1});
+
+        inventoryService.restock(1L, 5);
+        inventoryService.flush();
+        // Our +5 on top of their 8
+        assertThat(inventoryService.getStockLevel(1L).onHand()).isEqualTo(13);
+        inventoryService.flush();
+
+        verify(stockLevelRepository, times(2)).updateOnHandIfVersionMatches(writes.capture());
+        assertThat(writes.getAllValues().get(0)).containsExactly(new StockWrite(1L, 15, 0));
+        assertThat(writes.getAllValues().get(1)).containsExactly(new StockWrite(1L, 13, 1));
+    }
+
+    @Test
+    public void testNewStockRow_IsInserted() {
+        when(stockLevelRepository.findById(1L)).thenReturn(Optional.empty());
+        when(stockLevelRepository.insertIfAbsent(any())).thenReturn(new int[]{1});
+
+        inventoryService.restock(1L, 3);
+        inventoryService.flush();
+
+        verify(stockLevelRepository).insertIfAbsent(List.of(new StockWrite(1L, 3, -1)));
+    }
+
+    @Test
+    public void testProductDeletedWhileItsStockLoads_LeavesNoCounterBehind() {
+        when(stockLevelRepository.findById(1L)).thenAnswer(invocation -> {
+            inventoryService.onProductChanged(ProductChangedEvent.deleted(
+                    new Product(1L, "Keyboard", BigDecimal.valueOf(75.00), 0L)));
+            return Optional.of(new StockLevel(1L, 10, 0L));
+        });
+
+        Assertions.assertThrows(ProductNotFoundException.class, () -> inventoryService.restock(1L, 5));
+        inventoryService.flush();
+
+        verify(stockLevelRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(stockLevelRepository, never()).updateOnHandIfVersionMatches(any());
+    }
+
+    private static void runConcurrently(Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                task.run();
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+
+    private static int[] ones(int size) {
+        int[] counts = new int[size];
+        Arrays.fill(counts, 1);
+        return counts;
+    }
+}
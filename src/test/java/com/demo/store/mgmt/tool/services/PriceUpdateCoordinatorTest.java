@@ -0,0 +1,140 @@
+package com.demo.store.mgmt.tool.services;
+
+import com.demo.store.mgmt.tool.exception.ConcurrencyConflictException;
+import com.demo.store.mgmt.tool.exception.ProductValidationException;
+import com.demo.store.mgmt.tool.exception.ProductVersionMismatchException;
+import com.demo.store.mgmt.tool.models.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class PriceUpdateCoordinatorTest {
+
+    @Mock
+    private ProductService productService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void testConflict_IsRetriedUntilTheWriteSucceeds() {
+        Product updated = new Product(1L, "Laptop", BigDecimal.valueOf(900), 3L);
+        when(productService.changeProductPrice(1L, BigDecimal.valueOf(900)))
+                .thenThrow(new ConcurrencyConflictException("conflict"))
+                .thenThrow(new ConcurrencyConflictException("conflict"))
+                .thenReturn(updated);
+
+        Product result = coordinator(false).changeProductPrice(1L, BigDecimal.valueOf(900), null);
+
+        assertThat(result).isSameAs(updated);
+        assertThat(meterRegistry.counter("store.product.price.retries").count()).isEqualTo(2.0);
+        assertThat(meterRegistry.counter("store.product.price.conflicts").count()).isZero();
+    }
+
+    @Test
+    public void testConflict_AfterLastAttempt_IsRethrownAndCounted() {
+        when(productService.changeProductPrice(1L, BigDecimal.valueOf(900)))
+                .thenThrow(new ConcurrencyConflictException("conflict"));
+
+        Assertions.assertThrows(ConcurrencyConflictException.class,
+                () -> coordinator(false).changeProductPrice(1L, BigDecimal.valueOf(900), null));
+
+        verify(productService, times(3)).changeProductPrice(1L, BigDecimal.valueOf(900));
+        assertThat(meterRegistry.counter("store.product.price.conflicts").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    public void testExpectedVersion_IsNeverRetried() {
+        when(productService.changeProductPrice(1L, BigDecimal.valueOf(900), 2L))
+                .thenThrow(new ProductVersionMismatchException(1L));
+
+        Assertions.assertThrows(ProductVersionMismatchException.class,
+                () -> coordinator(true).changeProductPrice(1L, BigDecimal.valueOf(900), 2L));
+
+        verify(productService, times(1)).changeProductPrice(1L, BigDecimal.valueOf(900), 2L);
+        verify(productService, never()).changeProductPrice(any(), any());
+    }
+
+    @Test
+    public void testInvalidPrice_IsRejectedBeforeJoiningABatch() {
+        Assertions.assertThrows(ProductValidationException.class,
+                () -> coordinator(true).changeProductPrice(1L, BigDecimal.ZERO, null));
+
+        verify(productService, never()).changeProductPrice(any(), any());
+    }
+
+    @Test
+    public void testConcurrentWriters_AreCoalescedIntoOneWrite() throws Exception {
+        PriceUpdateCoordinator coordinator = coordinator(true);
+        CountDownLatch firstWriteStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstWrite = new CountDownLatch(1);
+        when(productService.changeProductPrice(eq(1L), any())).thenAnswer(invocation -> {
+            if (firstWriteStarted.getCount() > 0) {
+                firstWriteStarted.countDown();
+                releaseFirstWrite.await();
+            }
+            return new Product(1L, "Laptop", invocation.getArgument(1), 1L);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            Future<Product> first = executor.submit(() -> coordinator.changeProductPrice(1L, BigDecimal.valueOf(10), null));
+            assertThat(firstWriteStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // These arrive while the first write is in flight and queue up behind it
+            List<Future<Product>> queued = new ArrayList<>();
+            for (int i = 11; i <= 15; i++) {
+                BigDecimal price = BigDecimal.valueOf(i);
+                queued.add(executor.submit(() -> coordinator.changeProductPrice(1L, price, null)));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (coordinator.queuedWriters(1L) < 5 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertThat(coordinator.queuedWriters(1L)).isEqualTo(5);
+            releaseFirstWrite.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS).getPrice()).isEqualTo(BigDecimal.valueOf(10));
+            Product coalesced = queued.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<Product> writer : queued) {
+                assertThat(writer.get(5, TimeUnit.SECONDS)).isSameAs(coalesced);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(productService, times(2)).changeProductPrice(eq(1L), any());
+        assertThat(meterRegistry.counter("store.product.price.coalesced").count()).isEqualTo(4.0);
+    }
+
+    private PriceUpdateCoordinator coordinator(boolean coalesce) {
+        return new PriceUpdateCoordinator(productService, meterRegistry, 3, Duration.ZERO, Duration.ZERO, coalesce);
+    }
+}
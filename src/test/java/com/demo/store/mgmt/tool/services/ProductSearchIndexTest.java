@@ -0,0 +1,96 @@
+package com.demo.store.mgmt.tool.services;
+
+import com.demo.store.mgmt.tool.dto.ProductResponse;
+import com.demo.store.mgmt.tool.dto.ProductSnapshot;
+import com.demo.store.mgmt.tool.events.ProductChangedEvent;
+import com.demo.store.mgmt.tool.models.Product;
+import com.demo.store.mgmt.tool.repositories.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductSearchIndexTest {
+
+    @InjectMocks
+    private ProductSearchIndex searchIndex;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    public void setUp() {
+        when(productRepository.streamSnapshots()).thenReturn(Stream.of(
+                new ProductSnapshot(1L, "Wireless Mouse", BigDecimal.valueOf(25.00), 0L),
+                new ProductSnapshot(2L, "Mouse", BigDecimal.valueOf(15.00), 0L),
+                new ProductSnapshot(3L, "Mouse Pad", BigDecimal.valueOf(5.00), 0L),
+                new ProductSnapshot(4L, "Laptop", BigDecimal.valueOf(1200.00), 0L)));
+        searchIndex.rebuild();
+    }
+
+    @Test
+    public void testSearch_IsCaseInsensitiveAndRanked() {
+        List<ProductResponse> results = searchIndex.search("MOUSE", 10);
+
+        // Exact match, then prefix match, then any other substring match
+        assertThat(results).extracting(ProductResponse::name)
+                .containsExactly("Mouse", "Mouse Pad", "Wireless Mouse");
+    }
+
+    @Test
+    public void testSearch_AppliesLimit() {
+        assertThat(searchIndex.search("mouse", 2)).hasSize(2);
+    }
+
+    @Test
+    public void testSearch_ShortQueryAndNoMatch() {
+        assertThat(searchIndex.search("la", 10)).extracting(ProductResponse::name).containsExactly("Laptop");
+        assertThat(searchIndex.search("keyboard", 10)).isEmpty();
+        assertThat(searchIndex.search("mouse laptop", 10)).isEmpty();
+    }
+
+    @Test
+    public void testIncrementalUpdates() {
+        searchIndex.onProductChanged(ProductChangedEvent.created(
+                new Product(5L, "Gaming Mouse", BigDecimal.valueOf(60.00), 0L)));
+        searchIndex.onProductChanged(ProductChangedEvent.priceChanged(
+                new Product(2L, "Mouse", BigDecimal.valueOf(12.50), 1L), BigDecimal.valueOf(10.00)));
+        searchIndex.onProductChanged(ProductChangedEvent.deleted(
+                new Product(3L, "Mouse Pad", BigDecimal.valueOf(5.00), 0L)));
+
+        List<ProductResponse> results = searchIndex.search("mouse", 10);
+
+        assertThat(results).extracting(ProductResponse::name)
+                .containsExactly("Mouse", "Gaming Mouse", "Wireless Mouse");
+        assertThat(results.get(0).price()).isEqualTo(BigDecimal.valueOf(12.50));
+    }
+
+    @Test
+    public void testOutOfOrderPriceChange_DoesNotOverwriteNewerPrice() {
+        searchIndex.onProductChanged(ProductChangedEvent.priceChanged(2L, "Mouse", BigDecimal.valueOf(12.50), 2L));
+        searchIndex.onProductChanged(ProductChangedEvent.priceChanged(2L, "Mouse", BigDecimal.valueOf(14.00), 1L));
+
+        assertThat(searchIndex.search("mouse", 1).get(0).price()).isEqualTo(BigDecimal.valueOf(12.50));
+    }
+
+    @Test
+    public void testLateEventAfterDelete_DoesNotResurrectProduct() {
+        searchIndex.onProductChanged(ProductChangedEvent.deleted(
+                new Product(3L, "Mouse Pad", BigDecimal.valueOf(5.00), 1L)));
+        searchIndex.onProductChanged(ProductChangedEvent.priceChanged(3L, "Mouse Pad", BigDecimal.valueOf(4.00), 1L));
+        searchIndex.onProductChanged(ProductChangedEvent.created(
+                new Product(3L, "Mouse Pad", BigDecimal.valueOf(5.00), 0L)));
+
+        assertThat(searchIndex.search("pad", 10)).isEmpty();
+    }
+}
@@ -1,6 +1,12 @@
 package com.demo.store.mgmt.tool.services;
 
+import com.demo.store.mgmt.tool.cache.ProductCache;
 import com.demo.store.mgmt.tool.dto.AddProductRequest;
+import com.demo.store.mgmt.tool.dto.ProductBatchResponse;
+import com.demo.store.mgmt.tool.dto.ProductPage;
+import com.demo.store.mgmt.tool.dto.ProductResponse;
+import com.demo.store.mgmt.tool.dto.ProductSnapshot;
+import com.demo.store.mgmt.tool.events.ProductChangedEvent;
 import com.demo.store.mgmt.tool.exception.ProductNotFoundException;
 import com.demo.store.mgmt.tool.exception.ProductValidationException;
 import com.demo.store.mgmt.tool.models.Product;
@@ -9,19 +15,25 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -37,6 +49,15 @@ public class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ProductSearchIndex searchIndex;
+
+    @Mock
+    private ProductCache productCache;
+
     private Product product1;
     private Product product2;
 
@@ -73,43 +94,101 @@ public class ProductServiceTest {
     }
 
     @Test
-    public void testFindAllProducts() {
-        // Define the behavior for finding all products
-        List<Product> productList = Arrays.asList(product1, product2);
-        when(productRepository.findAll()).thenReturn(productList);
+    public void testFindProductsPage() {
+        // One row more than the page size comes back, so there must be a next page
+        List<ProductResponse> rows = Arrays.asList(
+                new ProductResponse(1L, "Laptop", BigDecimal.valueOf(1200.00)),
+                new ProductResponse(2L, "Mouse", BigDecimal.valueOf(25.00)));
+        when(productRepository.findPageAfter(eq(0L), any(Pageable.class))).thenReturn(rows);
 
-        // Call the service method
-        List<Product> result = productService.findAllProducts();
+        ProductPage page = productService.findProductsPage(null, 1);
 
-        // Assertions
-        assertThat(result).hasSize(2);
-        assertThat(result.get(0).getName()).isEqualTo("Laptop");
+        assertThat(page.items()).hasSize(1);
+        assertThat(page.items().get(0).name()).isEqualTo("Laptop");
+        assertThat(ProductService.decodeCursor(page.next())).isEqualTo(1L);
 
-        // Verify that findAll was called once
-        verify(productRepository, times(1)).findAll();
+        verify(productRepository, times(1)).findPageAfter(eq(0L), any(Pageable.class));
+    }
+
+    @Test
+    public void testFindProductsPage_InvalidSize_ThrowsException() {
+        Assertions.assertThrows(ProductValidationException.class,
+                () -> productService.findProductsPage(null, ProductService.MAX_PAGE_SIZE + 1));
     }
 
     @Test
     public void testFindProductByNameContaining() {
-        List<Product> productList = Arrays.asList(product2);
-        when(productRepository.findByNameContaining("Mou")).thenReturn(productList);
+        // The index reports not ready (mock default), so the service falls back to the LIKE query
+        List<ProductResponse> productList = List.of(new ProductResponse(2L, "Mouse", BigDecimal.valueOf(25.00)));
+        when(productRepository.searchByNameContaining("Mou", PageRequest.of(0, 10))).thenReturn(productList);
 
-        List<Product> result = productService.findProductsByNameContaining("Mou");
+        List<ProductResponse> result = productService.findProductsByNameContaining("Mou", 10);
         assertThat(result).hasSize(1);
-        assertThat(result.get(0).getName()).isEqualTo("Mouse");
+        assertThat(result.get(0).name()).isEqualTo("Mouse");
 
-        // Verify that findProductsByNameContaining was called once
-        verify(productRepository, times(1)).findByNameContaining("Mou");
+        // Verify that the limited LIKE query was called once
+        verify(productRepository, times(1)).searchByNameContaining("Mou", PageRequest.of(0, 10));
+    }
+
+    @Test
+    public void testFindProductByNameContaining_UsesIndexWhenReady() {
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.search("Mou", 10)).thenReturn(List.of(new ProductResponse(2L, "Mouse", BigDecimal.valueOf(25.00))));
+
+        List<ProductResponse> result = productService.findProductsByNameContaining("Mou", 10);
+        assertThat(result).hasSize(1);
+
+        // The database is not touched at all
+        verify(productRepository, times(0)).searchByNameContaining(any(), any());
     }
 
     @Test
     public void testFindProductByName() {
-        when(productRepository.findByName("Mouse")).thenReturn(Optional.of(product2));
-        Optional<Product> result = productService.findProductByName("Mouse");
+        when(productRepository.findSnapshotByName("Mouse")).thenReturn(Optional.of(ProductSnapshot.of(product2)));
+        Optional<ProductSnapshot> result = productService.findProductByName("Mouse");
+
+        assertThat(result.get().name()).isEqualTo("Mouse");
+        // Verify that the projection query was called once and the result was cached
+        verify(productRepository, times(1)).findSnapshotByName("Mouse");
+        verify(productCache, times(1)).putIfNewer(result.get());
+    }
+
+    @Test
+    public void testFindProductById_CacheHitSkipsRepository() {
+        ProductSnapshot cached = new ProductSnapshot(1L, "Laptop", BigDecimal.valueOf(1200.00), 3L);
+        when(productCache.getById(1L)).thenReturn(cached);
+
+        assertThat(productService.findProductById(1L)).contains(cached);
+        verify(productRepository, times(0)).findSnapshotById(anyLong());
+    }
+
+    @Test
+    public void testFindProductsByIds_KeepsRequestOrderAndReportsMissing() {
+        ProductSnapshot cached = new ProductSnapshot(2L, "Mouse", BigDecimal.valueOf(25.00), 1L);
+        when(productCache.getById(anyLong())).thenAnswer(invocation -> invocation.getArgument(0).equals(2L) ? cached : null);
+        when(productRepository.findSnapshotsByIdIn(List.of(9L, 1L)))
+                .thenReturn(List.of(ProductSnapshot.of(product1)));
+
+        ProductBatchResponse result = productService.findProductsByIds(List.of(9L, 2L, 1L, 2L));
+
+        assertThat(result.products()).extracting(ProductResponse::id).containsExactly(2L, 1L);
+        assertThat(result.missing()).containsExactly(9L);
+        // Only the cache misses go to the database, in a single query
+        verify(productRepository, times(1)).findSnapshotsByIdIn(any());
+    }
+
+    @Test
+    public void testFindProductsByIds_RejectsTooManyIds() {
+        List<Long> ids = LongStream.rangeClosed(1, ProductService.MAX_BATCH_LOOKUP + 1).boxed().toList();
 
-        assertThat(result.get().getName()).isEqualTo("Mouse");
-        // Verify that findByName was called once
-        verify(productRepository, times(1)).findByName("Mouse");
+        Assertions.assertThrows(ProductValidationException.class, () -> productService.findProductsByIds(ids));
+    }
+
+    @Test
+    public void testFindProductsByIds_RejectsNullId() {
+        List<Long> ids = Arrays.asList(1L, null);
+
+        Assertions.assertThrows(ProductValidationException.class, () -> productService.findProductsByIds(ids));
     }
 
     @Test
@@ -119,19 +198,34 @@ public class ProductServiceTest {
         // Define behavior for finding the existing product
         when(productRepository.findById(anyLong())).thenReturn(Optional.of(product1));
         // Define behavior for saving the updated product
-        when(productRepository.save(any(Product.class))).thenReturn(product1);
+        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(product1);
 
         // Call the service method
         Product updatedProduct = productService.changeProductPrice(1L, newPrice);
 
         // Assertions
         assertThat(updatedProduct).isNotNull();
-        assertThat(updatedProduct.getPrice()).isEqualTo(newPrice);
+        assertThat(updatedProduct.getPrice()).isEqualByComparingTo(newPrice);
 
         // Verify interactions
         verify(productRepository, times(1)).findById(1L);
-        verify(productRepository, times(1)).save(product1);
+        verify(productRepository, times(1)).saveAndFlush(product1);
     }
+
+    @Test
+    public void testChangePrice_RoundsToTheColumnScale() {
+        when(productRepository.findById(anyLong())).thenReturn(Optional.of(product1));
+        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(product1);
+
+        Product updatedProduct = productService.changeProductPrice(1L, new BigDecimal("10.005"));
+
+        // What the NUMERIC(10, 2) column will hold, and what every listener gets told
+        assertThat(updatedProduct.getPrice()).isEqualTo(new BigDecimal("10.01"));
+        ArgumentCaptor<ProductChangedEvent> event = ArgumentCaptor.forClass(ProductChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().price()).isEqualTo(new BigDecimal("10.01"));
+    }
+
     @Test
     public void testChangeNegativePrice_ThrowsException() {
         BigDecimal newPrice = BigDecimal.valueOf(-1250.00);
@@ -143,7 +237,16 @@ public class ProductServiceTest {
                 }
         );
         assertThat(thrown.getMessage()).contains("New price must be greater than zero");
-        verify(productRepository, times(0)).save(any(Product.class));
+        verify(productRepository, times(0)).saveAndFlush(any(Product.class));
+    }
+
+    @Test
+    public void testChangePriceAboveMaximum_ThrowsException() {
+        ProductValidationException thrown = Assertions.assertThrows(ProductValidationException.class,
+                () -> productService.changeProductPrice(1L, new BigDecimal("100000000.00")));
+
+        assertThat(thrown.getMessage()).isEqualTo("New price must be at most " + ProductService.MAX_PRICE);
+        verify(productRepository, times(0)).saveAndFlush(any(Product.class));
     }
 
     @Test
@@ -167,6 +270,6 @@ public class ProductServiceTest {
         assertThat(thrown.getMessage()).contains("Product not found with ID: 99");
 
         // Verify that the save method was NOT called, as the flow was interrupted by the exception
-        verify(productRepository, times(0)).save(any(Product.class));
+        verify(productRepository, times(0)).saveAndFlush(any(Product.class));
     }
 }
@@ -0,0 +1,85 @@
+package com.demo.store.mgmt.tool.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TimerWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    @Test
+    public void testTimer_FiresOnItsDeadlineTickAndNotBefore() {
+        TimerWheel<String> wheel = new TimerWheel<>(100, 8, START);
+        wheel.schedule(START + 250, "a");
+
+        assertThat(wheel.advance(START + 200)).isEmpty();
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advance(START + 299)).isEmpty();
+        assertThat(wheel.advance(START + 300)).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+        assertThat(wheel.advance(START + 400)).isEmpty();
+    }
+
+    @Test
+    public void testDeadlinesSeveralTurnsAway_WaitForTheirTurn() {
+        // 8 slots of 100 ms: one turn is 800 ms, so these share slot 2 with different turns
+        TimerWheel<String> wheel = new TimerWheel<>(100, 8, START);
+        wheel.schedule(START + 200, "first turn");
+        wheel.schedule(START + 1000, "second turn");
+        wheel.schedule(START + 2600, "fourth turn");
+
+        List<String> fired = new ArrayList<>();
+        for (long now = START; now <= START + 3000; now += 100) {
+            List<String> due = wheel.advance(now);
+            if (!due.isEmpty()) {
+                fired.add(now - START + ":" + String.join(",", due));
+            }
+        }
+        assertThat(fired).containsExactly("200:first turn", "1000:second turn", "2600:fourth turn");
+    }
+
+    @Test
+    public void testLongPause_ReturnsEverythingDueInDeadlineOrder() {
+        TimerWheel<Integer> wheel = new TimerWheel<>(10, 16, START);
+        for (int i = 999; i >= 0; i--) {
+            wheel.schedule(START + 10 + i * 7L, i);
+        }
+        wheel.advance(START); // moves them into the wheel
+
+        List<Integer> due = wheel.advance(START + 5000);
+
+        assertThat(due).hasSize(713).isSorted();
+        assertThat(wheel.size()).isEqualTo(287);
+        assertThat(wheel.advance(START + 10_000)).hasSize(287).startsWith(713);
+    }
+
+    @Test
+    public void testManyTimersOnOneInstant_ComeOutTogether() {
+        TimerWheel<Integer> wheel = new TimerWheel<>(100, 1024, START);
+        for (int i = 0; i < 100_000; i++) {
+            wheel.schedule(START + 60_000, i);
+        }
+
+        assertThat(wheel.advance(START + 59_999)).isEmpty();
+        assertThat(wheel.advance(START + 60_000)).hasSize(100_000);
+    }
+
+    @Test
+    public void testRescheduledTimer_FiresOnTheNextAdvance() {
+        TimerWheel<String> wheel = new TimerWheel<>(100, 8, START);
+        wheel.reschedule(START - 50, "retry");
+
+        assertThat(wheel.advance(START)).containsExactly("retry");
+    }
+
+    @Test
+    public void testWheelSize_MustBeAPowerOfTwo() {
+        assertThatThrownBy(() -> new TimerWheel<String>(100, 1000, START))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
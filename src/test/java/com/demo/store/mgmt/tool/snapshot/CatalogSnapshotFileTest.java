@@ -0,0 +1,111 @@
+package com.demo.store.mgmt.tool.snapshot;
+
+import com.demo.store.mgmt.tool.dto.ProductSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CatalogSnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testRoundTrip_KeepsEveryColumn() throws IOException {
+        List<ProductSnapshot> products = List.of(
+                product(1, "Keyboard", "75.00", 0),
+                product(2, "Keyboard, wireless", "0.01", 3),
+                product(51, "\u00C9cran 27\"", "99999999.99", 1_000_000),
+                product(52, "\u00C9cran 32\"", "12.30", 1),
+                product(1_000_000, "", "5.00", 0));
+        Path file = directory.resolve("catalog.snap");
+
+        assertThat(CatalogSnapshotFile.write(file, products.iterator())).isEqualTo(5);
+
+        List<ProductSnapshot> restored = new ArrayList<>();
+        assertThat(CatalogSnapshotFile.read(file, restored::add)).isEqualTo(5);
+        assertThat(restored).isEqualTo(products);
+        assertThat(Files.exists(directory.resolve("catalog.snap.tmp"))).isFalse();
+    }
+
+    @Test
+    public void testGeneratedCatalog_TakesAFewBytesPerProduct() throws IOException {
+        List<ProductSnapshot> products = new ArrayList<>();
+        for (int i = 1; i <= 100_000; i++) {
+            products.add(product(i, "Product " + i, (i % 1000) + "." + String.format("%02d", i % 100), 0));
+        }
+        Path file = directory.resolve("catalog.snap");
+
+        CatalogSnapshotFile.write(file, products.iterator());
+
+        // id 1 + price 2-3 + version 1 + name 3-5 bytes, against ~20 bytes a row as CSV
+        assertThat(Files.size(file)).isLessThan(100_000L * 10);
+        List<ProductSnapshot> restored = new ArrayList<>();
+        CatalogSnapshotFile.read(file, restored::add);
+        assertThat(restored).isEqualTo(products);
+    }
+
+    @Test
+    public void testEmptyCatalog_RoundTrips() throws IOException {
+        Path file = directory.resolve("empty.snap");
+
+        CatalogSnapshotFile.write(file, List.<ProductSnapshot>of().iterator());
+
+        assertThat(Files.size(file)).isEqualTo(CatalogSnapshotFile.HEADER_SIZE);
+        assertThat(CatalogSnapshotFile.read(file, product -> {})).isZero();
+    }
+
+    @Test
+    public void testCorruptColumn_IsRejected() throws IOException {
+        Path file = directory.resolve("catalog.snap");
+        CatalogSnapshotFile.write(file, List.of(product(1, "Mouse", "25.50", 0)).iterator());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0x7F}), Files.size(file) - 1);
+        }
+
+        assertThatThrownBy(() -> CatalogSnapshotFile.read(file, product -> {}))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("corrupt");
+    }
+
+    @Test
+    public void testOtherFiles_AreRejected() throws IOException {
+        Path file = Files.write(directory.resolve("catalog.csv"), new byte[CatalogSnapshotFile.HEADER_SIZE]);
+
+        assertThatThrownBy(() -> CatalogSnapshotFile.read(file, product -> {}))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Not a catalog snapshot");
+    }
+
+    @Test
+    public void testRowsOutOfIdOrder_AreRejected() {
+        List<ProductSnapshot> products = List.of(product(2, "B", "1.00", 0), product(1, "A", "1.00", 0));
+
+        assertThatThrownBy(() -> CatalogSnapshotFile.write(directory.resolve("catalog.snap"), products.iterator()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testZigzag_RoundTripsExtremes() {
+        for (long value : new long[] {0, 1, -1, 63, -64, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            assertThat(CatalogSnapshotFile.unzigzag(CatalogSnapshotFile.zigzag(value))).isEqualTo(value);
+        }
+        assertThat(CatalogSnapshotFile.zigzag(-1)).isEqualTo(1);
+    }
+
+    private static ProductSnapshot product(long id, String name, String price, long version) {
+        return new ProductSnapshot(id, name, new BigDecimal(price), version);
+    }
+}